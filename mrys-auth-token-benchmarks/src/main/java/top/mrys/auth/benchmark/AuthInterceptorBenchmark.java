@@ -0,0 +1,160 @@
+package top.mrys.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
+import top.mrys.auth.annotation.CheckAuth;
+import top.mrys.auth.config.SecurityManager;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.interceptor.AuthInterceptor;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.spel.AuthSpelEvaluator;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.SimpleTokenExtractor;
+import top.mrys.auth.token.UserInfo;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整的 {@link AuthInterceptor#preHandle} 基准测试，使用模拟的 Servlet 请求
+ * <ul>
+ *     <li>checkAuth：提取、验证 token 后执行 {@code @CheckAuth} 表达式</li>
+ *     <li>loginOnly：处理方法没有权限注解，只要求登录</li>
+ *     <li>unprotected：请求路径没有匹配的安全配置</li>
+ *     <li>rejected：token 验证失败，写出 401 响应</li>
+ * </ul>
+ * 每次调用都会重新绑定 RequestContextHolder，与 Spring MVC 处理请求时一致。
+ *
+ * @author mrys
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthInterceptorBenchmark {
+
+    private static final String VALID_TOKEN = "Bearer valid-token";
+
+    private GenericApplicationContext applicationContext;
+    private AuthInterceptor interceptor;
+
+    private HandlerMethod checkAuthHandler;
+    private HandlerMethod loginOnlyHandler;
+
+    private ServletRequestAttributes protectedAttributes;
+    private ServletRequestAttributes unprotectedAttributes;
+    private ServletRequestAttributes rejectedAttributes;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId("42");
+        userInfo.setUsername("bench");
+        userInfo.setRoles(Set.of("admin", "user"));
+        userInfo.setPermissions(Set.of("order:read", "order:write"));
+
+        SecurityManager securityManager = new SecurityManager();
+        securityManager.add("api")
+                .setIncludePatterns("/api/**")
+                .addTokenExtractors(new SimpleTokenExtractor())
+                .addTokenValidators((chain, ctx) -> {
+                    if (!VALID_TOKEN.equals(((SimpleToken) ctx.getToken()).getToken())) {
+                        throw new TokenException(ctx.getToken(), "token 无效");
+                    }
+                    ctx.getToken().setValid(true);
+                    ctx.setUserInfo(userInfo);
+                    chain.validate(ctx);
+                });
+
+        applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+        interceptor = new AuthInterceptor(securityManager, new AuthSpelEvaluator(applicationContext),
+                new AuthProperties(), new AuthMetadataRegistry());
+
+        OrderController controller = new OrderController();
+        checkAuthHandler = new HandlerMethod(controller, OrderController.class.getMethod("update"));
+        loginOnlyHandler = new HandlerMethod(controller, OrderController.class.getMethod("list"));
+
+        protectedAttributes = attributes("/api/orders", VALID_TOKEN);
+        unprotectedAttributes = attributes("/public/health", null);
+        rejectedAttributes = attributes("/api/orders", "Bearer invalid-token");
+        response = new MockHttpServletResponse();
+    }
+
+    private static ServletRequestAttributes attributes(String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Accept", "application/json");
+        if (token != null) {
+            request.addHeader("Authorization", token);
+        }
+        return new ServletRequestAttributes(request);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public boolean checkAuth() throws Exception {
+        return handle(protectedAttributes, checkAuthHandler);
+    }
+
+    @Benchmark
+    public boolean loginOnly() throws Exception {
+        return handle(protectedAttributes, loginOnlyHandler);
+    }
+
+    @Benchmark
+    public boolean unprotected() throws Exception {
+        return handle(unprotectedAttributes, loginOnlyHandler);
+    }
+
+    @Benchmark
+    public boolean rejected() throws Exception {
+        response.reset();
+        return handle(rejectedAttributes, checkAuthHandler);
+    }
+
+    private boolean handle(ServletRequestAttributes attributes, HandlerMethod handler) throws Exception {
+        RequestContextHolder.setRequestAttributes(attributes);
+        boolean result = interceptor.preHandle(attributes.getRequest(), response, handler);
+        interceptor.afterCompletion(attributes.getRequest(), response, handler, null);
+        return result;
+    }
+
+    /**
+     * 模拟的控制器
+     */
+    public static class OrderController {
+
+        public String list() {
+            return "list";
+        }
+
+        @CheckAuth("#hasRole('admin') and #hasPermission('order:write')")
+        public String update() {
+            return "update";
+        }
+    }
+}
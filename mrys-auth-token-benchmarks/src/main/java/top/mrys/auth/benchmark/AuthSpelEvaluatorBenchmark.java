@@ -0,0 +1,99 @@
+package top.mrys.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.mock.web.MockHttpServletRequest;
+import top.mrys.auth.spel.AuthSpelEvaluator;
+import top.mrys.auth.spel.AuthSpelExpressionParser;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.UserInfo;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpEL 权限表达式求值基准测试
+ * <ul>
+ *     <li>cold：不缓存解析结果，每次求值都重新解析表达式</li>
+ *     <li>warm：解析结果已在缓存中</li>
+ * </ul>
+ * 前两个表达式可以编译为原生断言，最后一个只能由 SpEL 执行。
+ *
+ * @author mrys
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthSpelEvaluatorBenchmark {
+
+    @Param({
+            "#hasRole('admin')",
+            "#hasAnyRole('admin', 'ops') and #hasPermission('user:read')",
+            "#user.userId == '42' and #request.method == 'GET'"
+    })
+    private String expression;
+
+    @Param({"OFF", "IMMEDIATE"})
+    private SpelCompilerMode compilerMode;
+
+    private GenericApplicationContext applicationContext;
+    private AuthSpelEvaluator coldEvaluator;
+    private AuthSpelEvaluator warmEvaluator;
+
+    private TokenContext context;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+        coldEvaluator = new AuthSpelEvaluator(applicationContext,
+                new AuthSpelExpressionParser(compilerMode, true, false, 0));
+        warmEvaluator = new AuthSpelEvaluator(applicationContext,
+                new AuthSpelExpressionParser(compilerMode, true, true, 256));
+
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId("42");
+        userInfo.setUsername("bench");
+        userInfo.setRoles(Set.of("admin", "user"));
+        userInfo.setPermissions(Set.of("user:read", "user:write"));
+        context = new TokenContext();
+        context.setToken(new SimpleToken("token", true, "header", "Authorization"));
+        context.setUserInfo(userInfo);
+        request = new MockHttpServletRequest("GET", "/api/users/42");
+
+        // 预先填充缓存
+        warmEvaluator.evaluate(expression, context, request);
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public boolean cold() {
+        return coldEvaluator.evaluate(expression, context, request);
+    }
+
+    @Benchmark
+    public boolean warm() {
+        return warmEvaluator.evaluate(expression, context, request);
+    }
+}
@@ -0,0 +1,83 @@
+package top.mrys.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.mrys.auth.config.SecurityConfigWrapper;
+import top.mrys.auth.config.SecurityManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路径匹配基准测试
+ * <ul>
+ *     <li>wrapper*：单个安全配置包含 patternCount 个路径模式，命中的是最后一个</li>
+ *     <li>manager*：安全管理器中有 patternCount 个安全配置，每个配置一个路径模式</li>
+ * </ul>
+ *
+ * @author mrys
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityConfigMatchBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int patternCount;
+
+    private SecurityConfigWrapper wrapper;
+    private SecurityManager securityManager;
+
+    private String hitPath;
+    private String missPath;
+
+    @Setup
+    public void setup() {
+        String[] includePatterns = new String[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            includePatterns[i] = "/service" + i + "/api/**";
+        }
+        wrapper = new SecurityConfigWrapper()
+                .setIncludePatterns(includePatterns)
+                .setExcludePatterns("/service0/api/public/**");
+
+        securityManager = new SecurityManager();
+        for (int i = 0; i < patternCount; i++) {
+            securityManager.add("config" + i).setIncludePatterns("/service" + i + "/api/**");
+        }
+
+        hitPath = "/service" + (patternCount - 1) + "/api/users/42/orders";
+        missPath = "/unknown/api/users/42/orders";
+    }
+
+    @Benchmark
+    public boolean wrapperMatchHit() {
+        return wrapper.match(hitPath);
+    }
+
+    @Benchmark
+    public boolean wrapperMatchMiss() {
+        return wrapper.match(missPath);
+    }
+
+    @Benchmark
+    public SecurityConfigWrapper managerMatchHit() {
+        return securityManager.match(hitPath);
+    }
+
+    @Benchmark
+    public SecurityConfigWrapper managerMatchMiss() {
+        return securityManager.match(missPath);
+    }
+}
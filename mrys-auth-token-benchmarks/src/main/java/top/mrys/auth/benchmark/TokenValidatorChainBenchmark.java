@@ -0,0 +1,70 @@
+package top.mrys.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidator;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证器链基准测试
+ * 验证器本身不做任何工作，测量的是链的创建和调度开销
+ *
+ * @author mrys
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenValidatorChainBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int validatorCount;
+
+    private List<TokenValidator> validators;
+    private TokenValidatorChain chain;
+
+    @Setup
+    public void setup() {
+        validators = new ArrayList<>();
+        for (int i = 0; i < validatorCount - 1; i++) {
+            validators.add((chain, ctx) -> chain.validate(ctx));
+        }
+        // 最后一个验证器标记 token 有效
+        validators.add((chain, ctx) -> {
+            ctx.getToken().setValid(true);
+            chain.validate(ctx);
+        });
+        chain = TokenValidatorChain.create(validators);
+    }
+
+    @Benchmark
+    public TokenValidatorChain create() {
+        return TokenValidatorChain.create(validators);
+    }
+
+    @Benchmark
+    public TokenContext validate() throws TokenException {
+        TokenContext context = new TokenContext();
+        context.setToken(new SimpleToken("token", false, "header", "Authorization"));
+        chain.validate(context);
+        return context;
+    }
+}
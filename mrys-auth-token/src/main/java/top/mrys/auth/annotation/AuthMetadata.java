@@ -0,0 +1,43 @@
+package top.mrys.auth.annotation;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 处理方法的权限元数据
+ * 由 {@link AuthMetadataRegistry} 为每个处理方法解析一次，之后的请求直接复用
+ *
+ * @author mrys
+ */
+@Getter
+public class AuthMetadata {
+
+    /**
+     * 合并后的权限注解，包括 {@link Anno}、{@link RequireLogin} 等派生注解，没有时为 null
+     */
+    private final CheckAuth checkAuth;
+
+    /**
+     * {@link AuthAlias} 指向的注解属性，没有时为 null
+     */
+    private final Object aliasAttrs;
+
+    /**
+     * 权限表达式求值时的额外变量，目前只有 #alias
+     */
+    private final Map<String, Object> variables;
+
+    public AuthMetadata(CheckAuth checkAuth, Object aliasAttrs) {
+        this.checkAuth = checkAuth;
+        this.aliasAttrs = aliasAttrs;
+        this.variables = aliasAttrs == null ? Map.of() : Map.of("alias", aliasAttrs);
+    }
+
+    /**
+     * 是否声明了权限注解
+     */
+    public boolean hasCheckAuth() {
+        return checkAuth != null;
+    }
+}
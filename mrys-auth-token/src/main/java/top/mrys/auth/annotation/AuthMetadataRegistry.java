@@ -0,0 +1,74 @@
+package top.mrys.auth.annotation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 权限元数据注册表
+ * <p>
+ * 合并注解的解析涉及大量反射，这里按处理方法缓存解析结果：
+ * 启动时从 RequestMappingHandlerMapping 预加载，未预加载的方法在第一次请求时解析。
+ *
+ * @author mrys
+ */
+@Slf4j
+public class AuthMetadataRegistry {
+
+    /**
+     * beanType -> method -> 元数据
+     * 同一方法在不同子类上的类级注解可能不同，所以按 beanType 区分
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, AuthMetadata>> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * 获取处理方法的权限元数据
+     */
+    public AuthMetadata get(HandlerMethod handlerMethod) {
+        ConcurrentMap<Method, AuthMetadata> methods = metadataCache.get(handlerMethod.getBeanType());
+        if (methods != null) {
+            AuthMetadata metadata = methods.get(handlerMethod.getMethod());
+            if (metadata != null) {
+                return metadata;
+            }
+        }
+        return metadataCache.computeIfAbsent(handlerMethod.getBeanType(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(handlerMethod.getMethod(), key -> resolve(handlerMethod));
+    }
+
+    /**
+     * 预加载处理方法的权限元数据
+     */
+    public void preload(Collection<HandlerMethod> handlerMethods) {
+        handlerMethods.forEach(this::get);
+        log.debug("预加载权限元数据完成，共 {} 个处理方法", handlerMethods.size());
+    }
+
+    /**
+     * 获取所有已解析的权限元数据
+     */
+    public List<AuthMetadata> getAll() {
+        List<AuthMetadata> all = new ArrayList<>();
+        metadataCache.values().forEach(methods -> all.addAll(methods.values()));
+        return all;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        metadataCache.clear();
+    }
+
+    private AuthMetadata resolve(HandlerMethod handlerMethod) {
+        CheckAuth checkAuth = AuthAnnotationParser.parseCheckAuth(handlerMethod).orElse(null);
+        Object aliasAttrs = AuthAnnotationParser.getAliasAttrs(handlerMethod.getMethod());
+        return new AuthMetadata(checkAuth, aliasAttrs);
+    }
+}
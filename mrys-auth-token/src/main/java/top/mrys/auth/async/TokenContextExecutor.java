@@ -0,0 +1,31 @@
+package top.mrys.auth.async;
+
+import org.springframework.util.Assert;
+import top.mrys.auth.token.TokenContext;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 传递认证上下文的执行器
+ * 提交的任务在执行时使用提交时的认证上下文，适用于 {@code CompletableFuture.supplyAsync(supplier, executor)} 等场景
+ *
+ * @author mrys
+ */
+public class TokenContextExecutor implements Executor {
+
+    private final Executor delegate;
+
+    public TokenContextExecutor(Executor delegate) {
+        Assert.notNull(delegate, "delegate 不能为空");
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(TokenContext.wrap(command));
+    }
+
+    public Executor getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,47 @@
+package top.mrys.auth.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 创建传递认证上下文的执行器
+ * <pre>
+ * try (ExecutorService executor = TokenContextExecutors.newVirtualThreadPerTaskExecutor()) {
+ *     Future&lt;Order&gt; order = executor.submit(() -&gt; orderService.find(id));
+ *     Future&lt;User&gt; user = executor.submit(() -&gt; userService.find(uid));
+ * }
+ * </pre>
+ *
+ * @author mrys
+ */
+public final class TokenContextExecutors {
+
+    private TokenContextExecutors() {
+    }
+
+    /**
+     * 包装执行器
+     */
+    public static Executor wrap(Executor executor) {
+        if (executor instanceof ExecutorService executorService) {
+            return wrap(executorService);
+        }
+        return executor instanceof TokenContextExecutor ? executor : new TokenContextExecutor(executor);
+    }
+
+    /**
+     * 包装 ExecutorService
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        return executorService instanceof TokenContextExecutorService
+                ? executorService : new TokenContextExecutorService(executorService);
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器，任务使用提交时的认证上下文
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return wrap(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
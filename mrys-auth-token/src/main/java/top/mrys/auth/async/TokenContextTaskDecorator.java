@@ -0,0 +1,20 @@
+package top.mrys.auth.async;
+
+import org.springframework.core.task.TaskDecorator;
+import top.mrys.auth.token.TokenContext;
+
+/**
+ * 传递认证上下文的任务装饰器
+ * <p>
+ * 注册为 Bean 后，Spring Boot 自动配置的任务执行器（@Async 使用的执行器）会使用它装饰所有任务，
+ * 任务在执行线程中可以通过 {@link TokenContext#get()} 读取提交线程的认证上下文。
+ *
+ * @author mrys
+ */
+public class TokenContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TokenContext.wrap(runnable);
+    }
+}
@@ -0,0 +1,101 @@
+package top.mrys.auth.audit;
+
+/**
+ * 审计事件
+ * <p>
+ * 事件对象在环形缓冲区中预先分配并循环复用，只能在写入回调中读取，不能保存引用。
+ * token 在记录时就已脱敏，只保存首尾若干字符，缓冲区中不会出现 token 原文。
+ *
+ * @author mrys
+ */
+public final class AuditEvent {
+
+    /**
+     * token 首尾各保留的字符数
+     */
+    static final int TOKEN_VISIBLE_CHARS = 4;
+
+    /**
+     * 短于该长度的 token 全部隐藏
+     */
+    static final int TOKEN_MIN_VISIBLE_LENGTH = 16;
+
+    /**
+     * 已发布的序号，由生产者在写完字段后写入，消费者据此判断事件是否可读
+     */
+    volatile long sequence = -1;
+
+    long timestamp;
+    AuditEventType type;
+    boolean success;
+    String configName;
+    String path;
+    String userId;
+    String message;
+
+    // 脱敏后的 token：首尾字符保存在预分配的数组中
+    final char[] tokenHead = new char[TOKEN_VISIBLE_CHARS];
+    final char[] tokenTail = new char[TOKEN_VISIBLE_CHARS];
+    int tokenLength = -1;
+
+    void setToken(String token) {
+        if (token == null) {
+            tokenLength = -1;
+            return;
+        }
+        tokenLength = token.length();
+        if (tokenLength >= TOKEN_MIN_VISIBLE_LENGTH) {
+            token.getChars(0, TOKEN_VISIBLE_CHARS, tokenHead, 0);
+            token.getChars(tokenLength - TOKEN_VISIBLE_CHARS, tokenLength, tokenTail, 0);
+        }
+    }
+
+    void clear() {
+        configName = null;
+        path = null;
+        userId = null;
+        message = null;
+        tokenLength = -1;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public AuditEventType getType() {
+        return type;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getConfigName() {
+        return configName;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 追加脱敏后的 token，如 eyJh****Q3xY，没有 token 时追加 -
+     */
+    public void appendMaskedToken(StringBuilder builder) {
+        if (tokenLength < 0) {
+            builder.append('-');
+        } else if (tokenLength < TOKEN_MIN_VISIBLE_LENGTH) {
+            builder.append("****");
+        } else {
+            builder.append(tokenHead).append("****").append(tokenTail);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package top.mrys.auth.audit;
+
+/**
+ * 审计事件类型
+ *
+ * @author mrys
+ */
+public enum AuditEventType {
+
+    /**
+     * 提取 token
+     */
+    EXTRACT,
+
+    /**
+     * 验证 token
+     */
+    VALIDATE,
+
+    /**
+     * 权限检查
+     */
+    PERMISSION_CHECK,
+
+    /**
+     * 认证失败，包括验证失败、权限不足和被限流
+     */
+    FAILURE
+}
@@ -0,0 +1,24 @@
+package top.mrys.auth.audit;
+
+/**
+ * 审计缓冲区满时的处理策略
+ *
+ * @author mrys
+ */
+public enum AuditFullPolicy {
+
+    /**
+     * 丢弃新事件，不影响请求延迟
+     */
+    DROP,
+
+    /**
+     * 等待缓冲区有空位，不丢失事件，写入跟不上时会拖慢请求
+     */
+    BLOCK,
+
+    /**
+     * 缓冲区超过一半时按 sampleRate 对成功事件采样，失败事件全部保留，缓冲区满时丢弃
+     */
+    SAMPLE
+}
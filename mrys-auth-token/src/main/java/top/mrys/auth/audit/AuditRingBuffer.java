@@ -0,0 +1,101 @@
+package top.mrys.auth.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 多生产者、单消费者的环形缓冲区
+ * <p>
+ * 事件对象预先分配，生产者通过 CAS 领取序号后就地填写并发布，记录事件不分配对象；
+ * 消费者按序号顺序读取已发布的事件，遇到尚未发布的序号时停止。
+ *
+ * @author mrys
+ */
+final class AuditRingBuffer {
+
+    private final AuditEvent[] events;
+    private final int mask;
+
+    /**
+     * 下一个待领取的序号
+     */
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * 下一个待读取的序号，只由消费者写入
+     */
+    private volatile long consumed;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.events = new AuditEvent[size];
+        for (int i = 0; i < size; i++) {
+            events[i] = new AuditEvent();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 领取一个序号
+     *
+     * @return 序号，缓冲区已满时返回 -1
+     */
+    long claim() {
+        for (; ; ) {
+            long sequence = cursor.get();
+            if (sequence - consumed >= events.length) {
+                return -1L;
+            }
+            if (cursor.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * 领取的序号对应的事件，填写后调用 {@link #publish(long)}
+     */
+    AuditEvent get(long sequence) {
+        return events[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        events[(int) (sequence & mask)].sequence = sequence;
+    }
+
+    /**
+     * 读取已发布的事件，只能由一个线程调用
+     *
+     * @return 读取的事件数
+     */
+    int drain(Consumer<AuditEvent> consumer, int maxEvents) {
+        long next = consumed;
+        int count = 0;
+        while (count < maxEvents) {
+            AuditEvent event = events[(int) (next & mask)];
+            if (event.sequence != next) {
+                break;
+            }
+            try {
+                consumer.accept(event);
+            } finally {
+                event.clear();
+            }
+            next++;
+            count++;
+        }
+        consumed = next;
+        return count;
+    }
+
+    /**
+     * 已领取但尚未读取的事件数
+     */
+    int size() {
+        return (int) (cursor.get() - consumed);
+    }
+
+    int capacity() {
+        return events.length;
+    }
+}
@@ -0,0 +1,19 @@
+package top.mrys.auth.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 审计日志输出
+ * 由审计写入线程调用，每次写入一批格式化后的日志行
+ *
+ * @author mrys
+ * @see RollingFileAuditSink
+ */
+public interface AuditSink extends Closeable {
+
+    /**
+     * 写入一批日志行，每行以换行符结尾
+     */
+    void write(CharSequence lines) throws IOException;
+}
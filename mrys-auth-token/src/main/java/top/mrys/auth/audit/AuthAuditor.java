@@ -0,0 +1,191 @@
+package top.mrys.auth.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 认证审计
+ * <p>
+ * 请求线程记录事件时只把字段写入预分配的环形缓冲区，不做 I/O、不分配对象；
+ * 后台线程按批次读取事件，格式化后写入 {@link AuditSink}。缓冲区满时按 {@link AuditFullPolicy} 处理。
+ * token 在记录时脱敏，只保留首尾各 4 个字符。
+ * <p>
+ * 作为 Spring Bean 时容器关闭会自动调用 {@link #close()}，写完缓冲区中剩余的事件。
+ *
+ * @author mrys
+ */
+@Slf4j
+public class AuthAuditor implements AutoCloseable {
+
+    private final AuditRingBuffer buffer;
+    private final AuditSink sink;
+    private final int batchSize;
+    private final AuditFullPolicy fullPolicy;
+    private final int sampleRate;
+    private final long flushIntervalNanos;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final LongAdder recordedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder sampledOutCount = new LongAdder();
+
+    // 只由写入线程访问
+    private final StringBuilder lines = new StringBuilder(16 * 1024);
+
+    /**
+     * @param sink          日志输出
+     * @param bufferSize    缓冲区容量，向上取整为 2 的幂
+     * @param batchSize     每批写入的最大事件数
+     * @param fullPolicy    缓冲区满时的处理策略
+     * @param sampleRate    SAMPLE 策略下成功事件的采样间隔，每 sampleRate 个保留 1 个
+     * @param flushInterval 缓冲区为空时写入线程的等待间隔
+     */
+    public AuthAuditor(AuditSink sink, int bufferSize, int batchSize, AuditFullPolicy fullPolicy, int sampleRate,
+                       Duration flushInterval) {
+        Assert.notNull(sink, "sink 不能为空");
+        Assert.isTrue(batchSize > 0, "batchSize 必须大于 0");
+        Assert.isTrue(sampleRate > 0, "sampleRate 必须大于 0");
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.fullPolicy = fullPolicy;
+        this.sampleRate = sampleRate;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.writer = new Thread(this::runWriter, "auth-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 记录事件
+     *
+     * @param type       事件类型
+     * @param success    是否成功
+     * @param configName 安全配置名称
+     * @param path       请求路径
+     * @param token      token，记录时脱敏
+     * @param userId     用户标识
+     * @param message    附加信息，如失败原因
+     * @return 是否已记录，被丢弃或采样跳过时返回 false
+     */
+    public boolean record(AuditEventType type, boolean success, String configName, String path, Token token,
+                          String userId, String message) {
+        if (fullPolicy == AuditFullPolicy.SAMPLE && success && buffer.size() > buffer.capacity() / 2
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            sampledOutCount.increment();
+            return false;
+        }
+        long sequence = buffer.claim();
+        while (sequence < 0) {
+            if (fullPolicy != AuditFullPolicy.BLOCK || !running) {
+                droppedCount.increment();
+                return false;
+            }
+            LockSupport.parkNanos(50_000L);
+            sequence = buffer.claim();
+        }
+        AuditEvent event = buffer.get(sequence);
+        event.timestamp = System.currentTimeMillis();
+        event.type = type;
+        event.success = success;
+        event.configName = configName;
+        event.path = path;
+        event.userId = userId;
+        event.message = message;
+        event.setToken(token instanceof SimpleToken simpleToken ? simpleToken.getToken() : null);
+        buffer.publish(sequence);
+        recordedCount.increment();
+        return true;
+    }
+
+    private void runWriter() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        // 关闭后写完剩余的事件
+        while (drainBatch() > 0) {
+            // 继续读取
+        }
+    }
+
+    private int drainBatch() {
+        int count = buffer.drain(this::format, batchSize);
+        if (count > 0) {
+            try {
+                sink.write(lines);
+            } catch (IOException | RuntimeException e) {
+                droppedCount.add(count);
+                log.warn("写入审计日志失败，丢弃 {} 条事件", count, e);
+            } finally {
+                lines.setLength(0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 格式化为一行：时间 类型 结果 config= path= user= token= message=
+     */
+    private void format(AuditEvent event) {
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.timestamp), lines);
+        lines.append(' ').append(event.type)
+                .append(event.success ? " SUCCESS" : " FAILURE")
+                .append(" config=").append(event.configName == null ? "-" : event.configName)
+                .append(" path=").append(event.path == null ? "-" : event.path)
+                .append(" user=").append(event.userId == null ? "-" : event.userId)
+                .append(" token=");
+        event.appendMaskedToken(lines);
+        if (event.message != null) {
+            lines.append(" message=").append(event.message);
+        }
+        lines.append('\n');
+    }
+
+    /**
+     * 已记录的事件数
+     */
+    public long getRecordedCount() {
+        return recordedCount.sum();
+    }
+
+    /**
+     * 因缓冲区满或写入失败丢弃的事件数
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * SAMPLE 策略下被采样跳过的事件数
+     */
+    public long getSampledOutCount() {
+        return sampledOutCount.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(10_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+    }
+}
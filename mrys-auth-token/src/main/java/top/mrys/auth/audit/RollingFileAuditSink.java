@@ -0,0 +1,89 @@
+package top.mrys.auth.audit;
+
+import org.springframework.util.Assert;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 按大小滚动的审计日志文件
+ * <p>
+ * 当前文件超过 maxFileSize 后依次重命名为 fileName.1、fileName.2 ……，最多保留 maxHistory 个历史文件。
+ * 只由审计写入线程调用，不是线程安全的。
+ *
+ * @author mrys
+ */
+public class RollingFileAuditSink implements AuditSink {
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+
+    private OutputStream out;
+    private long size;
+
+    /**
+     * @param directory   目录，不存在时创建
+     * @param fileName    文件名
+     * @param maxFileSize 单个文件的最大字节数
+     * @param maxHistory  保留的历史文件数
+     */
+    public RollingFileAuditSink(Path directory, String fileName, long maxFileSize, int maxHistory) throws IOException {
+        Assert.isTrue(maxFileSize > 0, "maxFileSize 必须大于 0");
+        Assert.isTrue(maxHistory >= 0, "maxHistory 不能小于 0");
+        Files.createDirectories(directory);
+        this.file = directory.resolve(fileName);
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        open();
+    }
+
+    @Override
+    public void write(CharSequence lines) throws IOException {
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length > maxFileSize) {
+            roll();
+        }
+        out.write(bytes);
+        out.flush();
+        size += bytes.length;
+    }
+
+    private void open() throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        this.size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        if (maxHistory == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(history(maxHistory));
+            for (int i = maxHistory - 1; i >= 1; i--) {
+                Path source = history(i);
+                if (Files.exists(source)) {
+                    Files.move(source, history(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, history(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path history(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,330 @@
+package top.mrys.auth.cache;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 有界缓存，使用分段 LRU（SLRU）淘汰策略
+ * <p>
+ * 新条目先进入试用段，再次命中后晋升到保护段，保护段超出容量时最久未访问的条目降级回试用段，
+ * 淘汰总是优先发生在试用段。只被访问过一次的条目因此无法挤掉被反复访问的热点条目。
+ * <p>
+ * 读操作不加锁：命中后只在能立即获得锁时才调整访问顺序，锁竞争时放弃本次调整，
+ * 所以高并发读取不会互相阻塞，访问顺序只是近似的。写操作和淘汰在锁内完成。
+ * <p>
+ * 条目可以单独设置存活时间，过期的条目在下次读取时移除，未被读取的过期条目随正常淘汰离开缓存。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author mrys
+ */
+public class SegmentedLruCache<K, V> {
+
+    private static final int PROBATION = 0;
+    private static final int PROTECTED = 1;
+    private static final int REMOVED = -1;
+
+    /**
+     * 永不过期
+     */
+    private static final long NO_EXPIRY = 0L;
+
+    /**
+     * 保护段占总容量的比例
+     */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final int maximumSize;
+    private final int protectedMaximumSize;
+
+    private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 双向循环链表的哨兵节点，head.next 为最久未访问的条目，受 lock 保护
+    private final Node<K, V> probation = new Node<>(null, null);
+    private final Node<K, V> protectedSegment = new Node<>(null, null);
+    private int probationSize;
+    private int protectedSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public SegmentedLruCache(int maximumSize) {
+        Assert.isTrue(maximumSize > 0, "maximumSize 必须大于 0");
+        this.maximumSize = maximumSize;
+        this.protectedMaximumSize = (int) (maximumSize * PROTECTED_RATIO);
+    }
+
+    /**
+     * 获取缓存值
+     *
+     * @return 缓存值，不存在时返回 null
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        if (node.isExpired()) {
+            missCount.increment();
+            remove(node);
+            return null;
+        }
+        hitCount.increment();
+        if (lock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * 获取缓存值，不存在时通过 loader 加载并放入缓存
+     * loader 在锁外执行，并发加载同一个键时以先放入的值为准
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Node<K, V> existing = data.get(key);
+            if (existing != null && !existing.isExpired()) {
+                return existing.value;
+            }
+            if (existing != null) {
+                data.remove(key);
+                unlink(existing);
+            }
+            insert(key, loaded, NO_EXPIRY);
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 放入缓存，永不过期
+     */
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * 放入缓存
+     *
+     * @param ttl 存活时间，为 null 时永不过期
+     */
+    public void put(K key, V value, Duration ttl) {
+        Assert.notNull(value, "value 不能为空");
+        long expiresAt = expiresAt(ttl);
+        lock.lock();
+        try {
+            Node<K, V> existing = data.get(key);
+            if (existing != null) {
+                existing.value = value;
+                existing.expiresAt = expiresAt;
+                onAccess(existing);
+            } else {
+                insert(key, value, expiresAt);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除缓存
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            data.clear();
+            // 逐个摘除，避免读线程持有的旧节点再次调整访问顺序时破坏链表
+            while (probationSize > 0) {
+                unlink(probation.next);
+            }
+            while (protectedSize > 0) {
+                unlink(protectedSegment.next);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 当前条目数
+     */
+    public int size() {
+        return data.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中率，没有请求时返回 1
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedLruCache{size=" + size() + ", maximumSize=" + maximumSize
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + '}';
+    }
+
+    private void remove(Node<K, V> node) {
+        lock.lock();
+        try {
+            if (data.remove(node.key, node)) {
+                unlink(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long expiresAt(Duration ttl) {
+        if (ttl == null) {
+            return NO_EXPIRY;
+        }
+        Assert.isTrue(!ttl.isNegative() && !ttl.isZero(), "ttl 必须大于 0");
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        // nanoTime 可能为任意值，避开表示永不过期的 0
+        return expiresAt == NO_EXPIRY ? 1L : expiresAt;
+    }
+
+    // ---------- 以下方法需持有 lock ----------
+
+    private void insert(K key, V value, long expiresAt) {
+        Node<K, V> node = new Node<>(key, value);
+        node.expiresAt = expiresAt;
+        data.put(key, node);
+        linkLast(probation, node);
+        node.segment = PROBATION;
+        probationSize++;
+        while (probationSize + protectedSize > maximumSize) {
+            evict();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.segment == PROBATION) {
+            unlink(node);
+            linkLast(protectedSegment, node);
+            node.segment = PROTECTED;
+            protectedSize++;
+            if (protectedSize > protectedMaximumSize) {
+                Node<K, V> demoted = protectedSegment.next;
+                unlink(demoted);
+                linkLast(probation, demoted);
+                demoted.segment = PROBATION;
+                probationSize++;
+            }
+        } else if (node.segment == PROTECTED) {
+            unlink(node);
+            linkLast(protectedSegment, node);
+            node.segment = PROTECTED;
+            protectedSize++;
+        }
+    }
+
+    private void evict() {
+        Node<K, V> victim = probationSize > 0 ? probation.next : protectedSegment.next;
+        unlink(victim);
+        data.remove(victim.key, victim);
+        evictionCount.increment();
+    }
+
+    private void linkLast(Node<K, V> head, Node<K, V> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.segment == REMOVED) {
+            return;
+        }
+        if (node.segment == PROBATION) {
+            probationSize--;
+        } else {
+            protectedSize--;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node.next = null;
+        node.segment = REMOVED;
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile long expiresAt = NO_EXPIRY;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+        private int segment = REMOVED;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+            this.prev = this;
+            this.next = this;
+        }
+
+        private boolean isExpired() {
+            long deadline = expiresAt;
+            return deadline != NO_EXPIRY && System.nanoTime() - deadline >= 0;
+        }
+    }
+}
@@ -1,67 +1,87 @@
 package top.mrys.auth.config;
 
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.context.ApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
+import top.mrys.auth.audit.AuthAuditor;
+import top.mrys.auth.audit.RollingFileAuditSink;
 import top.mrys.auth.interceptor.AuthInterceptor;
+import top.mrys.auth.interceptor.TokenContextScopeFilter;
+import top.mrys.auth.metrics.AuthMetrics;
 import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.ratelimit.AuthRateLimitGuard;
+import top.mrys.auth.ratelimit.AuthRateLimiter;
+import top.mrys.auth.ratelimit.RateLimitKeyResolver;
 import top.mrys.auth.spel.AuthSpelEvaluator;
-import top.mrys.auth.token.SimpleTokenExtractor;
+import top.mrys.auth.spel.AuthSpelExpressionParser;
+import top.mrys.auth.token.ConfigurableTokenExtractor;
 import top.mrys.auth.token.TokenExtractor;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * 认证框架自动配置类
  * 负责自动配置认证相关的 Bean 和组件
  *
  * @author mrys
  */
-@AutoConfiguration
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @ConditionalOnClass({SecurityManager.class})
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableConfigurationProperties(AuthProperties.class)
+@Import({AuthCoreConfiguration.class, AuthMetricsConfiguration.class})
 public class AuthAutoConfiguration {
 
-    private static final Logger log = LoggerFactory.getLogger(AuthAutoConfiguration.class);
-
     /**
-     * 配置安全管理器
+     * 配置默认的 Token 提取器，按 mrys.auth.token 配置的请求头、查询参数和 Cookie 提取
      */
     @Bean
     @ConditionalOnMissingBean
-    public SecurityManager securityManager() {
-        return new SecurityManager();
+    public TokenExtractor tokenExtractor(AuthProperties authProperties) {
+        return new ConfigurableTokenExtractor(authProperties.getToken());
     }
 
     /**
-     * 配置默认的 Token 提取器
+     * 启动时预加载所有处理方法的权限元数据
+     * 启用 SpEL 编译时同时预编译所有 @CheckAuth 表达式
      */
     @Bean
-    @ConditionalOnMissingBean
-    public TokenExtractor tokenExtractor() {
-        return new SimpleTokenExtractor();
+    public SmartInitializingSingleton authMetadataPreloader(AuthMetadataRegistry authMetadataRegistry,
+                                                            ObjectProvider<RequestMappingHandlerMapping> handlerMappings,
+                                                            AuthSpelExpressionParser authSpelExpressionParser,
+                                                            AuthSpelEvaluator authSpelEvaluator,
+                                                            AuthProperties authProperties) {
+        return () -> AuthCoreConfiguration.preloadMetadata(
+                handlerMappings.orderedStream().map(mapping -> mapping.getHandlerMethods().values()),
+                authMetadataRegistry, authSpelExpressionParser, authSpelEvaluator, authProperties);
     }
 
     /**
-     * 配置 SpEL 表达式求值器
-     * 每次请求都会创建一个新的实例，
+     * 为每个请求绑定认证上下文作用域，只在 SCOPED_VALUE 模式下启用
      */
     @Bean
-    @Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS)
-    public AuthSpelEvaluator authSpelEvaluator(ApplicationContext applicationContext) {
-        log.debug("创建新的 AuthSpelEvaluator 实例");
-        return new AuthSpelEvaluator(applicationContext);
+    public FilterRegistrationBean<TokenContextScopeFilter> tokenContextScopeFilter(AuthProperties authProperties) {
+        FilterRegistrationBean<TokenContextScopeFilter> registration =
+                new FilterRegistrationBean<>(new TokenContextScopeFilter());
+        registration.setEnabled(authProperties.getContext().getMode() == AuthProperties.ContextMode.SCOPED_VALUE);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
 
     /**
@@ -70,8 +90,67 @@ public class AuthAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public AuthInterceptor authInterceptor(SecurityManager securityManager,
-                                           AuthProperties authProperties) {
-        return new AuthInterceptor(securityManager, authProperties);
+                                           AuthSpelEvaluator authSpelEvaluator,
+                                           AuthProperties authProperties,
+                                           AuthMetadataRegistry authMetadataRegistry,
+                                           ObjectProvider<AuthRateLimitGuard> authRateLimitGuard,
+                                           ObjectProvider<AuthAuditor> authAuditor,
+                                           ObjectProvider<AuthMetrics> authMetrics) {
+        AuthInterceptor interceptor = new AuthInterceptor(securityManager, authSpelEvaluator, authProperties,
+                authMetadataRegistry);
+        interceptor.setRateLimitGuard(authRateLimitGuard.getIfAvailable());
+        interceptor.setAuditor(authAuditor.getIfAvailable());
+        interceptor.setMetrics(authMetrics.getIfAvailable(() -> AuthMetrics.NOOP));
+        return interceptor;
+    }
+
+    /**
+     * 审计日志，mrys.auth.audit.enabled 为 true 时启用
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mrys.auth.audit", name = "enabled", havingValue = "true")
+    public AuthAuditor authAuditor(AuthProperties authProperties) throws IOException {
+        AuthProperties.AuditConfig audit = authProperties.getAudit();
+        RollingFileAuditSink sink = new RollingFileAuditSink(Path.of(audit.getDirectory()), audit.getFileName(),
+                audit.getMaxFileSize().toBytes(), audit.getMaxHistory());
+        return new AuthAuditor(sink, audit.getBufferSize(), audit.getBatchSize(), audit.getFullPolicy(),
+                audit.getSampleRate(), audit.getFlushInterval());
+    }
+
+    /**
+     * 限流配置，mrys.auth.rate-limit.enabled 为 true 时启用
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "mrys.auth.rate-limit", name = "enabled", havingValue = "true")
+    public static class AuthRateLimitConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AuthRateLimiter authRateLimiter(AuthProperties authProperties) {
+            AuthProperties.RateLimitConfig config = authProperties.getRateLimit();
+            return new AuthRateLimiter(config.getPermits(), config.getPeriod(), config.getBurst(), config.getMaxKeys());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RateLimitKeyResolver rateLimitKeyResolver(AuthProperties authProperties) {
+            AuthProperties.RateLimitConfig config = authProperties.getRateLimit();
+            return switch (config.getKey()) {
+                case IP -> RateLimitKeyResolver.clientIp(config.isTrustForwardedFor());
+                case PARAMETER -> RateLimitKeyResolver.parameter(config.getParameterName());
+                case TOKEN -> RateLimitKeyResolver.token(authProperties.getToken().getHeaderNames());
+            };
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AuthRateLimitGuard authRateLimitGuard(AuthRateLimiter authRateLimiter,
+                                                     RateLimitKeyResolver rateLimitKeyResolver,
+                                                     AuthProperties authProperties) {
+            return new AuthRateLimitGuard(authRateLimiter, rateLimitKeyResolver,
+                    authProperties.getRateLimit().isFailuresOnly());
+        }
     }
 
     /**
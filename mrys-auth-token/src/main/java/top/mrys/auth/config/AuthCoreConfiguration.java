@@ -0,0 +1,142 @@
+package top.mrys.auth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.method.HandlerMethod;
+import top.mrys.auth.annotation.AuthMetadata;
+import top.mrys.auth.async.TokenContextTaskDecorator;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.spel.AuthSpelEvaluator;
+import top.mrys.auth.spel.AuthSpelExpressionParser;
+import top.mrys.auth.token.ScopedValueTokenContextStrategy;
+import top.mrys.auth.token.ThreadLocalTokenContextStrategy;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenContextStrategy;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servlet 和响应式应用共用的认证组件
+ *
+ * @author mrys
+ */
+@Configuration(proxyBeanMethods = false)
+public class AuthCoreConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthCoreConfiguration.class);
+
+    /**
+     * 配置安全管理器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SecurityManager securityManager() {
+        return new SecurityManager();
+    }
+
+    /**
+     * 配置认证上下文的存储策略
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenContextStrategy tokenContextStrategy(AuthProperties authProperties) {
+        return switch (authProperties.getContext().getMode()) {
+            case THREAD_LOCAL -> new ThreadLocalTokenContextStrategy();
+            case SCOPED_VALUE -> new ScopedValueTokenContextStrategy();
+        };
+    }
+
+    /**
+     * 在处理请求之前安装认证上下文的存储策略
+     */
+    @Bean
+    public SmartInitializingSingleton tokenContextStrategyInstaller(TokenContextStrategy tokenContextStrategy) {
+        return () -> {
+            TokenContext.setStrategy(tokenContextStrategy);
+            log.debug("认证上下文存储策略: {}", tokenContextStrategy.getClass().getSimpleName());
+        };
+    }
+
+    /**
+     * 配置传递认证上下文的任务装饰器
+     * Spring Boot 自动配置的任务执行器会使用唯一的 TaskDecorator Bean
+     */
+    @Bean
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    @ConditionalOnProperty(prefix = "mrys.auth.async", name = "task-decorator", havingValue = "true", matchIfMissing = true)
+    public TokenContextTaskDecorator tokenContextTaskDecorator() {
+        return new TokenContextTaskDecorator();
+    }
+
+    /**
+     * 配置 SpEL 表达式解析器
+     * 单例共享，表达式缓存在所有请求间复用
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AuthSpelExpressionParser authSpelExpressionParser(AuthProperties authProperties) {
+        AuthProperties.SpelConfig spel = authProperties.getSpel();
+        return new AuthSpelExpressionParser(spel.getCompilerMode(), spel.isNativeCompile(),
+                spel.isEnableCache(), spel.getCacheSize());
+    }
+
+    /**
+     * 配置 SpEL 表达式求值器
+     * 线程安全的单例，单次求值的变量通过参数传入
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AuthSpelEvaluator authSpelEvaluator(ApplicationContext applicationContext,
+                                               AuthSpelExpressionParser authSpelExpressionParser) {
+        return new AuthSpelEvaluator(applicationContext, authSpelExpressionParser);
+    }
+
+    /**
+     * 配置权限元数据注册表
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AuthMetadataRegistry authMetadataRegistry() {
+        return new AuthMetadataRegistry();
+    }
+
+    /**
+     * 预加载处理方法的权限元数据
+     * 启用 SpEL 编译时同时预编译所有 @CheckAuth 表达式
+     */
+    static void preloadMetadata(Stream<Collection<HandlerMethod>> handlerMethods,
+                                AuthMetadataRegistry authMetadataRegistry,
+                                AuthSpelExpressionParser authSpelExpressionParser,
+                                AuthSpelEvaluator authSpelEvaluator,
+                                AuthProperties authProperties) {
+        handlerMethods.forEach(authMetadataRegistry::preload);
+        if (authSpelExpressionParser.isCompilerEnabled() && authProperties.getSpel().isPrecompile()) {
+            precompileExpressions(authMetadataRegistry, authSpelEvaluator);
+        }
+    }
+
+    private static void precompileExpressions(AuthMetadataRegistry authMetadataRegistry,
+                                              AuthSpelEvaluator authSpelEvaluator) {
+        Set<String> expressions = authMetadataRegistry.getAll().stream()
+                .filter(AuthMetadata::hasCheckAuth)
+                .map(metadata -> metadata.getCheckAuth().value())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> failed = authSpelEvaluator.precompile(expressions);
+        log.info("SpEL 表达式预编译完成，共 {} 个，{} 个无法编译", expressions.size(), failed.size());
+        if (!failed.isEmpty()) {
+            log.warn("以下 SpEL 表达式无法在启动时编译，将以解释模式执行: {}", failed);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package top.mrys.auth.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.mrys.auth.cache.SegmentedLruCache;
+import top.mrys.auth.jwt.JwtTokenValidator;
+import top.mrys.auth.metrics.AuthMetrics;
+import top.mrys.auth.metrics.AuthMetricsEndpoint;
+import top.mrys.auth.metrics.MicrometerAuthMetrics;
+import top.mrys.auth.revocation.RevocationCheckingValidator;
+import top.mrys.auth.spel.AuthSpelExpressionParser;
+import top.mrys.auth.token.CachingTokenValidator;
+import top.mrys.auth.token.SingleFlightTokenValidator;
+import top.mrys.auth.token.TokenValidator;
+
+/**
+ * 认证指标配置
+ * 类路径中存在 Micrometer 且 mrys.auth.metrics.enabled 不为 false 时启用，没有 MeterRegistry 时不记录指标
+ *
+ * @author mrys
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "mrys.auth.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuthMetricsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AuthMetrics authMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry == null ? AuthMetrics.NOOP : new MicrometerAuthMetrics(registry);
+    }
+
+    /**
+     * 启动完成后注册 SpEL 表达式缓存和各安全配置中验证器的缓存指标
+     * 之后新增的安全配置不会自动注册
+     */
+    @Bean
+    public SmartInitializingSingleton authCacheMetricsBinder(AuthMetrics authMetrics,
+                                                             SecurityManager securityManager,
+                                                             AuthSpelExpressionParser authSpelExpressionParser) {
+        return () -> {
+            if (!(authMetrics instanceof MicrometerAuthMetrics metrics)) {
+                return;
+            }
+            bindCache(metrics, "spel-expression", null, authSpelExpressionParser.getExpressionCache());
+            for (SecurityConfigWrapper config : securityManager.getSecurityConfigWrappers()) {
+                for (TokenValidator validator : config.getTokenValidators()) {
+                    bindValidator(metrics, config.getName(), validator);
+                }
+            }
+        };
+    }
+
+    private static void bindValidator(MicrometerAuthMetrics metrics, String configName, TokenValidator validator) {
+        // 逐层拆开包装的验证器
+        while (validator != null) {
+            if (validator instanceof CachingTokenValidator caching) {
+                bindCache(metrics, "token-validator", configName, caching.getCache());
+                validator = caching.getDelegate();
+            } else if (validator instanceof SingleFlightTokenValidator singleFlight) {
+                validator = singleFlight.getDelegate();
+            } else {
+                if (validator instanceof JwtTokenValidator jwt) {
+                    bindCache(metrics, "jwt-verification", configName, jwt.getVerificationCache());
+                } else if (validator instanceof RevocationCheckingValidator revocation) {
+                    metrics.bindRevocation(configName, revocation);
+                }
+                return;
+            }
+        }
+    }
+
+    private static void bindCache(MicrometerAuthMetrics metrics, String cacheName, String configName,
+                                  SegmentedLruCache<?, ?> cache) {
+        if (cache != null) {
+            metrics.bindCache(cacheName, configName, cache);
+        }
+    }
+
+    /**
+     * 认证指标端点，需要 Spring Boot Actuator
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    public static class AuthMetricsEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        public AuthMetricsEndpoint authMetricsEndpoint(MeterRegistry meterRegistry) {
+            return new AuthMetricsEndpoint(meterRegistry);
+        }
+    }
+}
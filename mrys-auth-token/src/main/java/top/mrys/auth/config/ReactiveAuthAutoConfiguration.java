@@ -0,0 +1,101 @@
+package top.mrys.auth.config;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.reactive.ReactiveAuthWebFilter;
+import top.mrys.auth.reactive.ReactiveTokenExtractor;
+import top.mrys.auth.reactive.ConfigurableReactiveTokenExtractor;
+import top.mrys.auth.spel.AuthSpelEvaluator;
+import top.mrys.auth.spel.AuthSpelExpressionParser;
+
+/**
+ * 响应式（WebFlux）应用的认证自动配置类
+ * 使用 {@link ReactiveAuthWebFilter} 代替 Servlet 应用中的拦截器
+ *
+ * @author mrys
+ */
+@AutoConfiguration
+@ConditionalOnClass({WebFilter.class, Mono.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(AuthProperties.class)
+@Import(AuthCoreConfiguration.class)
+public class ReactiveAuthAutoConfiguration {
+
+    /**
+     * WebFlux 注册的 RequestMappingHandlerMapping 的名称
+     */
+    static final String HANDLER_MAPPING_BEAN_NAME = "requestMappingHandlerMapping";
+
+    /**
+     * 配置默认的响应式 Token 提取器，按 mrys.auth.token 配置的请求头、查询参数和 Cookie 提取，与 Servlet 应用一致
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveTokenExtractor reactiveTokenExtractor(AuthProperties authProperties) {
+        return new ConfigurableReactiveTokenExtractor(authProperties.getToken());
+    }
+
+    /**
+     * 启动时预加载所有处理方法的权限元数据
+     */
+    @Bean
+    public SmartInitializingSingleton reactiveAuthMetadataPreloader(AuthMetadataRegistry authMetadataRegistry,
+                                                                    ObjectProvider<RequestMappingHandlerMapping> handlerMappings,
+                                                                    AuthSpelExpressionParser authSpelExpressionParser,
+                                                                    AuthSpelEvaluator authSpelEvaluator,
+                                                                    AuthProperties authProperties) {
+        return () -> AuthCoreConfiguration.preloadMetadata(
+                handlerMappings.orderedStream().map(mapping -> mapping.getHandlerMethods().values()),
+                authMetadataRegistry, authSpelExpressionParser, authSpelEvaluator, authProperties);
+    }
+
+    /**
+     * 配置响应式认证过滤器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveAuthWebFilter reactiveAuthWebFilter(SecurityManager securityManager,
+                                                       ReactiveTokenExtractor reactiveTokenExtractor,
+                                                       BeanFactory beanFactory,
+                                                       ObjectProvider<RequestMappingHandlerMapping> handlerMappings,
+                                                       AuthSpelEvaluator authSpelEvaluator,
+                                                       AuthProperties authProperties,
+                                                       AuthMetadataRegistry authMetadataRegistry) {
+        return new ReactiveAuthWebFilter(securityManager, reactiveTokenExtractor,
+                resolveHandlerMapping(beanFactory, handlerMappings),
+                authSpelEvaluator, authProperties, authMetadataRegistry);
+    }
+
+    /**
+     * 查找应用的 RequestMappingHandlerMapping
+     * <p>
+     * 引入 Actuator 后还有一个子类的实例（ControllerEndpointHandlerMapping），按类型查找不唯一，
+     * 所以优先按 WebFlux 注册的名称查找。找不到时启动失败，否则过滤器会跳过所有 {@code @CheckAuth} 检查。
+     */
+    static RequestMappingHandlerMapping resolveHandlerMapping(BeanFactory beanFactory,
+                                                              ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        if (beanFactory.containsBean(HANDLER_MAPPING_BEAN_NAME)
+                && beanFactory.isTypeMatch(HANDLER_MAPPING_BEAN_NAME, RequestMappingHandlerMapping.class)) {
+            return beanFactory.getBean(HANDLER_MAPPING_BEAN_NAME, RequestMappingHandlerMapping.class);
+        }
+        RequestMappingHandlerMapping handlerMapping = handlerMappings.getIfUnique();
+        if (handlerMapping == null) {
+            throw new IllegalStateException("找不到唯一的 RequestMappingHandlerMapping（" + HANDLER_MAPPING_BEAN_NAME
+                    + "），无法检查 @CheckAuth 权限");
+        }
+        return handlerMapping;
+    }
+}
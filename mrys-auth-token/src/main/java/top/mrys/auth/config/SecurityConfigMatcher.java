@@ -0,0 +1,250 @@
+package top.mrys.auth.config;
+
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 安全配置路由索引
+ * <p>
+ * 由 {@link SecurityManager} 中所有配置的包含/排除路径一次性编译而成。
+ * 路径模式按开头的字面量路径段挂到前缀树上，匹配时只沿请求路径的字面量段向下走，
+ * 仅对途经节点上的候选模式调用 {@link PathMatcher#match} 做最终确认，
+ * 因此匹配开销只与请求路径命中的候选数量有关，而与模式总数无关。
+ * <p>
+ * 语义与逐个调用 {@link SecurityConfigWrapper#match(String)} 一致：按添加顺序取第一个匹配的配置，排除优先于包含。
+ * 使用自定义 {@link PathMatcher} 的配置无法建立索引，会退化为逐个匹配，但仍保持先后顺序。
+ * <p>
+ * 匹配过程不分配对象：命中的配置记录在 long 位掩码中，子节点按路径段的哈希在开放寻址表中查找，
+ * 直接与请求路径的区间比较，不截取子串。位掩码只能容纳前 {@value #MAX_INDEXED} 个配置，之后的配置按逐个匹配处理。
+ *
+ * @author mrys
+ */
+class SecurityConfigMatcher {
+
+    private static final String PATH_SEPARATOR = "/";
+
+    /**
+     * 能建立索引的配置数量，即位掩码的位数
+     */
+    static final int MAX_INDEXED = Long.SIZE;
+
+    private final SecurityConfigWrapper[] wrappers;
+
+    private final Node root = new Node();
+
+    /**
+     * 未设置包含模式的配置（默认包含所有路径）的位掩码
+     */
+    private final long includeAll;
+
+    /**
+     * 使用自定义 PathMatcher 的配置，按顺序排列
+     */
+    private final int[] fallback;
+
+    private SecurityConfigMatcher(List<SecurityConfigWrapper> wrappers) {
+        this.wrappers = wrappers.toArray(new SecurityConfigWrapper[0]);
+        long includeAll = 0L;
+        List<Integer> fallback = new ArrayList<>();
+        for (int i = 0; i < this.wrappers.length; i++) {
+            SecurityConfigWrapper wrapper = this.wrappers[i];
+            if (!wrapper.isDefaultPathMatcher() || i >= MAX_INDEXED) {
+                fallback.add(i);
+                continue;
+            }
+            if (wrapper.getIncludePatterns().length == 0) {
+                includeAll |= 1L << i;
+            }
+            for (String pattern : wrapper.getIncludePatterns()) {
+                insert(new Entry(i, pattern, false));
+            }
+            for (String pattern : wrapper.getExcludePatterns()) {
+                insert(new Entry(i, pattern, true));
+            }
+        }
+        root.freeze();
+        this.includeAll = includeAll;
+        this.fallback = fallback.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 编译路由索引
+     */
+    static SecurityConfigMatcher compile(List<SecurityConfigWrapper> wrappers) {
+        return new SecurityConfigMatcher(wrappers);
+    }
+
+    /**
+     * 查找第一个匹配的安全配置
+     *
+     * @param path 请求路径
+     * @return 匹配的配置，没有匹配时返回 null
+     */
+    SecurityConfigWrapper match(String path) {
+        if (path == null || path.isEmpty() || wrappers.length == 0) {
+            return null;
+        }
+        int best = findIndexed(path);
+        for (int index : fallback) {
+            if (index >= best) {
+                break;
+            }
+            if (wrappers[index].match(path)) {
+                best = index;
+                break;
+            }
+        }
+        return best < wrappers.length ? wrappers[best] : null;
+    }
+
+    /**
+     * 在索引中查找第一个匹配的配置下标，没有时返回 wrappers.length
+     */
+    private int findIndexed(String path) {
+        long included = includeAll;
+        long excluded = 0L;
+        Node node = root;
+        int start = 0;
+        int length = path.length();
+        while (node != null) {
+            for (Entry entry : node.entries) {
+                long bit = 1L << entry.index;
+                if (((entry.exclude ? excluded : included) & bit) != 0) {
+                    continue;
+                }
+                if (wrappers[entry.index].getPathMatcher().match(entry.pattern, path)) {
+                    if (entry.exclude) {
+                        excluded |= bit;
+                    } else {
+                        included |= bit;
+                    }
+                }
+            }
+            // 跳过连续的分隔符，与 AntPathMatcher 忽略空路径段的行为一致
+            while (start < length && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start >= length || node.table == null) {
+                break;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(path, start, end);
+            start = end;
+        }
+        long matched = included & ~excluded;
+        return matched == 0L ? wrappers.length : Long.numberOfTrailingZeros(matched);
+    }
+
+    /**
+     * 将模式挂到其字面量前缀对应的节点上
+     */
+    private void insert(Entry entry) {
+        Node node = root;
+        for (String segment : entry.pattern.split(PATH_SEPARATOR)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (isWildcard(segment)) {
+                break;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>();
+            }
+            node = node.children.computeIfAbsent(segment, Node::new);
+        }
+        node.entries.add(entry);
+    }
+
+    private static boolean isWildcard(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 计算路径区间的哈希，与 {@link String#hashCode()} 的结果相同
+     */
+    private static int hash(String path, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + path.charAt(i);
+        }
+        return h;
+    }
+
+    private static class Node {
+        private final String segment;
+        private final List<Entry> entries = new ArrayList<>(1);
+
+        /**
+         * 构建期间的子节点，构建完成后转为 {@link #table}
+         */
+        private Map<String, Node> children;
+
+        /**
+         * 按路径段哈希线性探测的子节点表，长度为 2 的幂，没有子节点时为 null
+         */
+        private Node[] table;
+
+        Node() {
+            this("");
+        }
+
+        Node(String segment) {
+            this.segment = segment;
+        }
+
+        /**
+         * 把构建期间的子节点转为查找表
+         */
+        void freeze() {
+            if (children == null) {
+                return;
+            }
+            Node[] table = new Node[Integer.highestOneBit(children.size() * 2 - 1) << 1];
+            int mask = table.length - 1;
+            for (Node child : children.values()) {
+                child.freeze();
+                int i = child.segment.hashCode() & mask;
+                while (table[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = child;
+            }
+            this.table = table;
+            this.children = null;
+        }
+
+        /**
+         * 查找与 path[start, end) 相同的子节点
+         */
+        Node child(String path, int start, int end) {
+            Node[] table = this.table;
+            int mask = table.length - 1;
+            int length = end - start;
+            for (int i = hash(path, start, end) & mask; ; i = (i + 1) & mask) {
+                Node child = table[i];
+                if (child == null) {
+                    return null;
+                }
+                if (child.segment.length() == length && path.regionMatches(start, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+        }
+    }
+
+    private record Entry(int index, String pattern, boolean exclude) {
+    }
+}
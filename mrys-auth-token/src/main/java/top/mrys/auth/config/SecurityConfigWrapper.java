@@ -4,6 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
+import top.mrys.auth.reactive.BlockingTokenValidatorAdapter;
+import top.mrys.auth.reactive.ReactiveTokenExtractor;
+import top.mrys.auth.reactive.ReactiveTokenValidator;
+import top.mrys.auth.reactive.ReactiveTokenValidatorChain;
 import top.mrys.auth.token.Token;
 import top.mrys.auth.token.TokenExtractor;
 import top.mrys.auth.token.TokenValidator;
@@ -35,6 +39,19 @@ public class SecurityConfigWrapper {
     private final List<TokenExtractor> tokenExtractors = new ArrayList<>();
     private final List<TokenValidator> tokenValidators = new ArrayList<>();
 
+    // 预先构建的验证器链，仅在添加验证器时刷新
+    private volatile TokenValidatorChain tokenValidatorChain = TokenValidatorChain.create(List.of());
+
+    // 响应式应用使用的 token 提取器和验证器
+    private final List<ReactiveTokenExtractor> reactiveTokenExtractors = new ArrayList<>();
+    private final List<ReactiveTokenValidator> reactiveTokenValidators = new ArrayList<>();
+
+    // 响应式验证器链，首次使用时构建，Servlet 应用中不会加载 Reactor 相关的类
+    private volatile ReactiveTokenValidatorChain reactiveTokenValidatorChain;
+
+    // 所属的安全管理器，路径配置变更时通知其重建路由索引
+    private SecurityManager owner;
+
     /**
      * 添加 token 提取器
      */
@@ -48,6 +65,32 @@ public class SecurityConfigWrapper {
      */
     public SecurityConfigWrapper addTokenValidators(TokenValidator... tokenValidators) {
         this.tokenValidators.addAll(List.of(tokenValidators));
+        this.tokenValidatorChain = TokenValidatorChain.create(this.tokenValidators);
+        this.reactiveTokenValidatorChain = null;
+        return this;
+    }
+
+    /**
+     * 获取 token 验证器
+     */
+    public List<TokenValidator> getTokenValidators() {
+        return List.copyOf(tokenValidators);
+    }
+
+    /**
+     * 添加响应式 token 提取器
+     */
+    public SecurityConfigWrapper addReactiveTokenExtractors(ReactiveTokenExtractor... tokenExtractors) {
+        this.reactiveTokenExtractors.addAll(List.of(tokenExtractors));
+        return this;
+    }
+
+    /**
+     * 添加响应式 token 验证器
+     */
+    public SecurityConfigWrapper addReactiveTokenValidators(ReactiveTokenValidator... tokenValidators) {
+        this.reactiveTokenValidators.addAll(List.of(tokenValidators));
+        this.reactiveTokenValidatorChain = null;
         return this;
     }
 
@@ -56,6 +99,7 @@ public class SecurityConfigWrapper {
      */
     public SecurityConfigWrapper setPathMatcher(PathMatcher pathMatcher) {
         this.pathMatcher = pathMatcher;
+        onPathsChanged();
         return this;
     }
 
@@ -64,6 +108,7 @@ public class SecurityConfigWrapper {
      */
     public SecurityConfigWrapper setIncludePatterns(String... includePatterns) {
         this.includePatterns = includePatterns;
+        onPathsChanged();
         return this;
     }
 
@@ -72,6 +117,7 @@ public class SecurityConfigWrapper {
      */
     public SecurityConfigWrapper setExcludePatterns(String... excludePatterns) {
         this.excludePatterns = excludePatterns;
+        onPathsChanged();
         return this;
     }
 
@@ -108,24 +154,86 @@ public class SecurityConfigWrapper {
         return isMatch;
     }
 
+    PathMatcher getPathMatcher() {
+        return pathMatcher;
+    }
+
+    String[] getIncludePatterns() {
+        return includePatterns;
+    }
+
+    String[] getExcludePatterns() {
+        return excludePatterns;
+    }
+
+    /**
+     * 是否使用默认的 AntPathMatcher，只有默认匹配器的路径模式可以编入路由索引
+     */
+    boolean isDefaultPathMatcher() {
+        return pathMatcher == defaultPathMatcher;
+    }
+
+    void setOwner(SecurityManager owner) {
+        this.owner = owner;
+    }
+
+    private void onPathsChanged() {
+        if (owner != null) {
+            owner.invalidateRouteIndex();
+        }
+    }
+
     /**
      * 获取 TokenValidatorChain
      */
     public TokenValidatorChain getTokenValidatorChain() {
-        return TokenValidatorChain.create(this.tokenValidators);
+        return tokenValidatorChain;
+    }
+
+    /**
+     * 获取响应式 token 提取器
+     */
+    public List<ReactiveTokenExtractor> getReactiveTokenExtractors() {
+        return reactiveTokenExtractors;
+    }
+
+    /**
+     * 获取响应式验证器链
+     * 没有添加响应式验证器时，使用 {@link BlockingTokenValidatorAdapter} 包装已添加的阻塞验证器
+     */
+    public ReactiveTokenValidatorChain getReactiveTokenValidatorChain() {
+        ReactiveTokenValidatorChain chain = this.reactiveTokenValidatorChain;
+        if (chain == null) {
+            List<ReactiveTokenValidator> validators = new ArrayList<>(reactiveTokenValidators);
+            if (validators.isEmpty()) {
+                tokenValidators.forEach(validator -> validators.add(new BlockingTokenValidatorAdapter(validator)));
+            }
+            chain = ReactiveTokenValidatorChain.create(validators);
+            this.reactiveTokenValidatorChain = chain;
+        }
+        return chain;
     }
 
     /**
      * 获取 token
      */
     public Optional<Token> getToken() {
+        return Optional.ofNullable(extractToken());
+    }
+
+    /**
+     * 依次执行 token 提取器，返回第一个提取到的 token
+     *
+     * @return token，都没有提取到时返回 null
+     */
+    public Token extractToken() {
         for (TokenExtractor extractor : tokenExtractors) {
-            Optional<Token> token = extractor.extract();
-            if (token.isPresent()) {
+            Token token = extractor.extractToken();
+            if (token != null) {
                 return token;
             }
         }
-        return Optional.empty();
+        return null;
     }
 
 }
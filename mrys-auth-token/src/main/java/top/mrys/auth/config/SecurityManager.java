@@ -2,6 +2,7 @@ package top.mrys.auth.config;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SecurityManager 是一个安全管理器类，用于处理与安全相关的操作。
@@ -10,7 +11,12 @@ import java.util.List;
  */
 public class SecurityManager {
 
-    private final List<SecurityConfigWrapper> securityConfigWrappers = new ArrayList<>();
+    private final List<SecurityConfigWrapper> securityConfigWrappers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 路由索引，配置变更后置空，下次匹配时重新编译
+     */
+    private volatile SecurityConfigMatcher routeIndex;
 
     /**
      * 添加一个 SecurityConfigWrapper 到安全管理器中。
@@ -18,7 +24,9 @@ public class SecurityManager {
     public SecurityConfigWrapper add(String name) {
         SecurityConfigWrapper wrapper = new SecurityConfigWrapper();
         wrapper.setName(name);
+        wrapper.setOwner(this);
         this.securityConfigWrappers.add(wrapper);
+        invalidateRouteIndex();
         return wrapper;
     }
 
@@ -39,11 +47,29 @@ public class SecurityManager {
                 .orElse(null);
     }
 
+    /**
+     * 查找第一个匹配请求路径的安全配置
+     *
+     * @param path 请求路径
+     * @return 匹配的配置，没有匹配时返回 null
+     */
+    public SecurityConfigWrapper match(String path) {
+        SecurityConfigMatcher index = this.routeIndex;
+        if (index == null) {
+            index = rebuildRouteIndex();
+        }
+        return index.match(path);
+    }
+
     /**
      * 移除指定名称的安全配置包装器
      */
     public boolean remove(String name) {
-        return securityConfigWrappers.removeIf(wrapper -> name.equals(wrapper.getName()));
+        boolean removed = securityConfigWrappers.removeIf(wrapper -> name.equals(wrapper.getName()));
+        if (removed) {
+            invalidateRouteIndex();
+        }
+        return removed;
     }
 
     /**
@@ -51,5 +77,22 @@ public class SecurityManager {
      */
     public void clear() {
         securityConfigWrappers.clear();
+        invalidateRouteIndex();
+    }
+
+    /**
+     * 使路由索引失效
+     */
+    synchronized void invalidateRouteIndex() {
+        this.routeIndex = null;
+    }
+
+    private synchronized SecurityConfigMatcher rebuildRouteIndex() {
+        SecurityConfigMatcher index = this.routeIndex;
+        if (index == null) {
+            index = SecurityConfigMatcher.compile(securityConfigWrappers);
+            this.routeIndex = index;
+        }
+        return index;
     }
 }
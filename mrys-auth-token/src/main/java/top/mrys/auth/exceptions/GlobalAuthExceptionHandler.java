@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.ratelimit.RateLimitExceededException;
 
 import javax.swing.text.html.Option;
 import java.time.LocalDateTime;
@@ -104,6 +105,9 @@ public class GlobalAuthExceptionHandler {
      * 确定 HTTP 状态码
      */
     private HttpStatus determineHttpStatus(TokenException e) {
+        if (e instanceof RateLimitExceededException) {
+            return HttpStatus.TOO_MANY_REQUESTS;
+        }
         if (e.getToken() == null) {
             // Token 为空，认证失败
             return HttpStatus.valueOf(authProperties.getException().getAuthFailureStatus());
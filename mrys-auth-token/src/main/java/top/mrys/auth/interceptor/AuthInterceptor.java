@@ -1,23 +1,29 @@
 package top.mrys.auth.interceptor;
 
-import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
-import top.mrys.auth.annotation.AuthAnnotationParser;
+import top.mrys.auth.annotation.AuthMetadata;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
 import top.mrys.auth.annotation.CheckAuth;
+import top.mrys.auth.audit.AuditEventType;
+import top.mrys.auth.audit.AuthAuditor;
 import top.mrys.auth.config.SecurityConfigWrapper;
 import top.mrys.auth.config.SecurityManager;
 import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.metrics.AuthMetrics;
+import top.mrys.auth.metrics.AuthStage;
 import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.ratelimit.AuthRateLimitGuard;
+import top.mrys.auth.ratelimit.RateLimitExceededException;
 import top.mrys.auth.spel.AuthSpelEvaluator;
 import top.mrys.auth.token.Token;
 import top.mrys.auth.token.TokenContext;
 
-import java.util.Optional;
 
 /**
  * 认证拦截器
@@ -30,10 +36,27 @@ import java.util.Optional;
 public class AuthInterceptor implements HandlerInterceptor {
 
     private final SecurityManager securityManager;
-    @Resource
-    private AuthSpelEvaluator authSpelEvaluator;
+    private final AuthSpelEvaluator authSpelEvaluator;
     private final AuthProperties authProperties;
+    private final AuthMetadataRegistry authMetadataRegistry;
 
+    /**
+     * 限流守卫，为 null 时不限流
+     */
+    @Setter
+    private AuthRateLimitGuard rateLimitGuard;
+
+    /**
+     * 审计，为 null 时不记录
+     */
+    @Setter
+    private AuthAuditor auditor;
+
+    /**
+     * 认证指标
+     */
+    @Setter
+    private AuthMetrics metrics = AuthMetrics.NOOP;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -41,57 +64,117 @@ public class AuthInterceptor implements HandlerInterceptor {
         if (!authProperties.isEnabled()) {
             return true;
         }
+        String rateLimitKey = null;
+        SecurityConfigWrapper matchedConfig = null;
+        // 未启用监控时不计时，起始时间为 0
+        long requestStart = metrics.isEnabled() ? System.nanoTime() : 0L;
+        long stageStart = requestStart;
+        AuthStage stage = AuthStage.RATE_LIMIT;
         try {
-            // 创建认证上下文
-            TokenContext context = new TokenContext();
-            TokenContext.set(context);
+            // 限流检查在所有验证之前，被限流的请求不会到达验证器
+            if (rateLimitGuard != null) {
+                rateLimitKey = rateLimitGuard.check(request);
+                stageStart = mark(AuthStage.RATE_LIMIT, null, true, stageStart);
+            }
 
             // 查找匹配的安全配置
-            SecurityConfigWrapper matchedConfig = securityManager.getSecurityConfigWrappers()
-                    .stream()
-                    .filter(config -> config.match(request.getRequestURI())) // 匹配请求路径
-                    .findFirst()
-                    .orElse(null);
+            stage = AuthStage.MATCH;
+            matchedConfig = securityManager.match(request.getRequestURI());
+            stageStart = mark(AuthStage.MATCH, matchedConfig, true, stageStart);
 
+            // 没有匹配的安全配置时直接放行，不创建认证上下文，与排除的路径一致
             if (matchedConfig == null) {
-                log.debug("未找到匹配的安全配置，放行请求: {}", request.getRequestURI());
+                if (log.isDebugEnabled()) {
+                    log.debug("未找到匹配的安全配置，放行请求: {}", request.getRequestURI());
+                }
+                mark(AuthStage.TOTAL, null, true, requestStart);
                 return true;
             }
 
-            // 提取 Token
-            Optional<Token> token = matchedConfig.getToken();
+            // 创建认证上下文
+            TokenContext context = new TokenContext();
+            TokenContext.set(context);
 
-            if (token.isPresent()) {
-                context.setToken(token.get());
+            // 提取 Token
+            stage = AuthStage.EXTRACT;
+            Token token = matchedConfig.extractToken();
+            stageStart = mark(AuthStage.EXTRACT, matchedConfig, true, stageStart);
+            audit(AuditEventType.EXTRACT, token != null, matchedConfig, request, token, null);
+
+            if (token != null) {
+                stage = AuthStage.VALIDATE;
+                context.setToken(token);
                 // 验证token
                 matchedConfig.getTokenValidatorChain().validate(context);
 
                 if (!context.getToken().isValid()) {
                     throw new TokenException(context.getToken(), "token 验证未通过");
                 }
+                stageStart = mark(AuthStage.VALIDATE, matchedConfig, true, stageStart);
+                audit(AuditEventType.VALIDATE, true, matchedConfig, request, context.getToken(), null);
             }
 
 
             // 只处理方法处理器 不处理其他类型的处理器 如:
             if (!(handler instanceof HandlerMethod handlerMethod)) {
+                mark(AuthStage.TOTAL, matchedConfig, true, requestStart);
                 return true;
             }
 
+            stage = AuthStage.PERMISSION;
             checkPermission(request, handlerMethod);
+            mark(AuthStage.PERMISSION, matchedConfig, true, stageStart);
+            mark(AuthStage.TOTAL, matchedConfig, true, requestStart);
+            audit(AuditEventType.PERMISSION_CHECK, true, matchedConfig, request, TokenContext.get().getToken(), null);
 
             return true;
 
+        } catch (RateLimitExceededException e) {
+            log.warn("请求被限流: {} - {}", request.getRequestURI(), e.getMessage());
+            markFailure(stage, matchedConfig, stageStart, requestStart);
+            audit(AuditEventType.FAILURE, false, matchedConfig, request, null, e.getMessage());
+            handleRateLimited(response, e);
+            return false;
         } catch (TokenException e) {
             log.warn("认证失败: {} - {}", request.getRequestURI(), e.getMessage());
+            markFailure(stage, matchedConfig, stageStart, requestStart);
+            audit(AuditEventType.FAILURE, false, matchedConfig, request, e.getToken(), e.getMessage());
+            if (rateLimitGuard != null) {
+                rateLimitGuard.onFailure(rateLimitKey);
+            }
             handleAuthenticationFailure(request, response, e);
             return false;
         } catch (Exception e) {
             log.error("认证过程中发生异常: {}", request.getRequestURI(), e);
+            markFailure(stage, matchedConfig, stageStart, requestStart);
             handleAuthenticationFailure(request, response, new TokenException(null, "认证过程中发生异常"));
             return false;
         }
     }
 
+    /**
+     * 记录阶段耗时
+     *
+     * @param since 阶段开始时间，为 0 表示未启用监控
+     * @return 当前时间，作为下一阶段的开始时间
+     */
+    private long mark(AuthStage stage, SecurityConfigWrapper config, boolean success, long since) {
+        if (since == 0L) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        metrics.recordStage(stage, config == null ? null : config.getName(), success, now - since);
+        return now;
+    }
+
+    /**
+     * 记录失败的阶段和整个认证过程
+     */
+    private void markFailure(AuthStage stage, SecurityConfigWrapper config, long stageStart, long requestStart) {
+        mark(stage, config, false, stageStart);
+        mark(AuthStage.TOTAL, config, false, requestStart);
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
         // 清理认证上下文
@@ -100,32 +183,57 @@ public class AuthInterceptor implements HandlerInterceptor {
 
     /**
      * 处理权限验证
+     * <p>
+     * 验证器可能在验证过程中绑定新的 {@link TokenContext}，所以这里重新读取当前线程的上下文
      */
     private void checkPermission(HttpServletRequest request, HandlerMethod handlerMethod) throws TokenException {
-        // 获取权限注解
-        Optional<CheckAuth> checkAuth = AuthAnnotationParser.parseCheckAuth(handlerMethod);
-
-        if (checkAuth.isEmpty()) {
-            // 判断是否登录
-            TokenContext context = TokenContext.get();
-            if (!context.getToken().isValid()) {
-                throw new TokenException(context.getToken(), "未登录或登录已过期");
+        // 获取权限元数据
+        AuthMetadata metadata = authMetadataRegistry.get(handlerMethod);
+        TokenContext context = TokenContext.get();
+
+        if (!metadata.hasCheckAuth()) {
+            // 判断是否登录，没有提取到 token 时 context 中的 token 为 null
+            Token token = context.getToken();
+            if (token == null || !token.isValid()) {
+                throw new TokenException(token, "未登录或登录已过期");
             } else {
                 return; // 如果没有权限注解，表示只需要登录即可访问
             }
         }
 
-        Object attrs = AuthAnnotationParser.getAliasAttrs(handlerMethod.getMethod());
-        authSpelEvaluator.setEvaluationContextConsumer(context -> {
-            context.setVariable("alias", attrs);
-        });
-        boolean evaluate = authSpelEvaluator.evaluate(checkAuth.get().value(), TokenContext.get(), request);
+        CheckAuth checkAuth = metadata.getCheckAuth();
+        boolean evaluate = authSpelEvaluator.evaluate(checkAuth.value(), context, request,
+                metadata.getVariables());
         if (!evaluate) {
             // 如果权限验证失败，抛出异常
-            throw new TokenException(TokenContext.get().getToken(), checkAuth.get().msg());
+            throw new TokenException(context.getToken(), checkAuth.msg());
+        }
+    }
+
+
+    /**
+     * 记录审计事件，用户标识取自当前认证上下文
+     */
+    private void audit(AuditEventType type, boolean success, SecurityConfigWrapper config,
+                       HttpServletRequest request, Token token, String message) {
+        if (auditor == null) {
+            return;
         }
+        TokenContext context = TokenContext.get();
+        String userId = context == null || context.getUserInfo() == null ? null : context.getUserInfo().getUserId();
+        auditor.record(type, success, config == null ? null : config.getName(), request.getRequestURI(), token,
+                userId, message);
     }
 
+    /**
+     * 处理限流
+     */
+    private void handleRateLimited(HttpServletResponse response, RateLimitExceededException e) {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+        response.setContentType("application/json;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+    }
 
     /**
      * 处理认证失败
@@ -0,0 +1,55 @@
+package top.mrys.auth.interceptor;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import top.mrys.auth.token.TokenContext;
+
+import java.io.IOException;
+
+/**
+ * 为每个请求绑定认证上下文作用域
+ * <p>
+ * 使用 {@link top.mrys.auth.token.ScopedValueTokenContextStrategy} 时，{@link AuthInterceptor} 设置的上下文
+ * 只在作用域内有效，该过滤器需要排在所有读取认证上下文的组件之前。
+ *
+ * @author mrys
+ */
+public class TokenContextScopeFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            TokenContext.runWith(null, () -> {
+                try {
+                    filterChain.doFilter(request, response);
+                } catch (IOException | ServletException e) {
+                    throw new CheckedExceptionWrapper(e);
+                }
+            });
+        } catch (CheckedExceptionWrapper e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw (ServletException) e.getCause();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // 异步分发在新的线程上执行，同样需要绑定作用域
+        return false;
+    }
+
+    /**
+     * 用于把受检异常带出 Runnable
+     */
+    private static class CheckedExceptionWrapper extends RuntimeException {
+        private CheckedExceptionWrapper(Exception cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package top.mrys.auth.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 从本地 JWKS 文件读取密钥
+ * <p>
+ * 支持 oct（HS256）、RSA（RS256）、EC P-256（ES256）三种密钥。
+ * 文件按需热加载：查找密钥时如果距上次检查超过 checkInterval，比较文件的修改时间，变化后重新解析。
+ * 检查只由一个线程执行，其他线程继续使用当前密钥；重新加载失败时保留原来的密钥。
+ *
+ * @author mrys
+ */
+@Slf4j
+public class JwksFileKeySource implements JwtKeySource {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path path;
+    private final long checkIntervalNanos;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile long nextCheck;
+    private volatile Snapshot snapshot;
+
+    public JwksFileKeySource(Path path) {
+        this(path, Duration.ofSeconds(10));
+    }
+
+    /**
+     * @param path          JWKS 文件路径
+     * @param checkInterval 检查文件变化的间隔
+     */
+    public JwksFileKeySource(Path path, Duration checkInterval) {
+        Assert.notNull(path, "path 不能为空");
+        this.path = path;
+        this.checkIntervalNanos = checkInterval.toNanos();
+        try {
+            this.snapshot = load(0L);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("加载 JWKS 文件失败: " + path, e);
+        }
+        this.nextCheck = System.nanoTime() + checkIntervalNanos;
+    }
+
+    @Override
+    public JwtKey getKey(String keyId) {
+        reloadIfNecessary();
+        return snapshot.keys.get(keyId);
+    }
+
+    /**
+     * 查询版本同样会按 checkInterval 检查文件变化，缓存了验证结果的调用方不查找密钥也能感知密钥更新
+     */
+    @Override
+    public long getGeneration() {
+        reloadIfNecessary();
+        return snapshot.generation;
+    }
+
+    /**
+     * 当前的密钥数量
+     */
+    public int getKeyCount() {
+        return snapshot.keys.size();
+    }
+
+    private void reloadIfNecessary() {
+        if (System.nanoTime() - nextCheck < 0 || !checking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Snapshot current = snapshot;
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (!modified.equals(current.modified)) {
+                snapshot = load(current.generation + 1);
+                log.info("JWKS 文件已重新加载: {}，共 {} 个密钥", path, snapshot.keys.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("重新加载 JWKS 文件失败，继续使用原来的密钥: {}", path, e);
+        } finally {
+            nextCheck = System.nanoTime() + checkIntervalNanos;
+            checking.set(false);
+        }
+    }
+
+    private Snapshot load(long generation) throws IOException {
+        // 先取修改时间再读内容，读取期间文件变化会在下次检查时重新加载
+        FileTime modified = Files.getLastModifiedTime(path);
+        JsonNode root = OBJECT_MAPPER.readTree(Files.readAllBytes(path));
+        JsonNode keys = root.path("keys");
+        Assert.isTrue(keys.isArray(), "JWKS 缺少 keys 数组");
+        List<JwtKey> parsed = new ArrayList<>();
+        for (JsonNode jwk : keys) {
+            JwtKey key = parse(jwk);
+            if (key != null) {
+                parsed.add(key);
+            }
+        }
+        return new Snapshot(new JwtKeySet(parsed), modified, generation);
+    }
+
+    /**
+     * 解析单个 JWK，不支持的密钥类型或用途返回 null
+     */
+    private static JwtKey parse(JsonNode jwk) {
+        String use = jwk.path("use").asText(null);
+        if (use != null && !"sig".equals(use)) {
+            return null;
+        }
+        String keyId = jwk.path("kid").asText(null);
+        String kty = jwk.path("kty").asText("");
+        try {
+            return switch (kty) {
+                case "oct" -> JwtKey.hmac(keyId, decode(jwk, "k"));
+                case "RSA" -> {
+                    RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                            new BigInteger(1, decode(jwk, "n")), new BigInteger(1, decode(jwk, "e")));
+                    yield JwtKey.rsa(keyId, (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(spec));
+                }
+                case "EC" -> {
+                    if (!"P-256".equals(jwk.path("crv").asText())) {
+                        log.warn("忽略不支持的 EC 曲线: kid={}, crv={}", keyId, jwk.path("crv").asText());
+                        yield null;
+                    }
+                    AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                    parameters.init(new ECGenParameterSpec("secp256r1"));
+                    ECPoint point = new ECPoint(new BigInteger(1, decode(jwk, "x")), new BigInteger(1, decode(jwk, "y")));
+                    ECPublicKeySpec spec = new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class));
+                    yield JwtKey.ec(keyId, (ECPublicKey) KeyFactory.getInstance("EC").generatePublic(spec));
+                }
+                default -> {
+                    log.warn("忽略不支持的 JWK 类型: kid={}, kty={}", keyId, kty);
+                    yield null;
+                }
+            };
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.warn("解析 JWK 失败: kid={}", keyId, e);
+            return null;
+        }
+    }
+
+    private static byte[] decode(JsonNode jwk, String field) {
+        String value = jwk.path(field).asText(null);
+        Assert.hasText(value, "JWK 缺少字段 " + field);
+        return Base64.getUrlDecoder().decode(value);
+    }
+
+    private static final class Snapshot {
+        private final JwtKeySet keys;
+        private final FileTime modified;
+        private final long generation;
+
+        private Snapshot(JwtKeySet keys, FileTime modified, long generation) {
+            this.keys = keys;
+            this.modified = modified;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package top.mrys.auth.jwt;
+
+/**
+ * 支持的 JWT 签名算法
+ *
+ * @author mrys
+ */
+public enum JwtAlgorithm {
+
+    /**
+     * HMAC SHA-256
+     */
+    HS256("HmacSHA256"),
+
+    /**
+     * RSASSA-PKCS1-v1_5 SHA-256
+     */
+    RS256("SHA256withRSA"),
+
+    /**
+     * ECDSA P-256 SHA-256，签名为 R || S 拼接的 64 字节（P1363 格式）
+     */
+    ES256("SHA256withECDSAinP1363Format");
+
+    private final String jcaName;
+
+    JwtAlgorithm(String jcaName) {
+        this.jcaName = jcaName;
+    }
+
+    /**
+     * JCA 中的算法名称
+     */
+    public String getJcaName() {
+        return jcaName;
+    }
+
+    public boolean isHmac() {
+        return this == HS256;
+    }
+
+    /**
+     * 根据 JWT 头部的 alg 查找算法
+     *
+     * @return 算法，不支持时返回 null
+     */
+    public static JwtAlgorithm of(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name) {
+            case "HS256" -> HS256;
+            case "RS256" -> RS256;
+            case "ES256" -> ES256;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package top.mrys.auth.jwt;
+
+import lombok.Data;
+
+/**
+ * JWT 声明到 {@link top.mrys.auth.token.UserInfo} 的映射
+ * <p>
+ * 声明名称支持用点号访问嵌套对象，如 Keycloak 的 {@code realm_access.roles}。
+ * 角色、权限声明可以是字符串数组，也可以是以空格或逗号分隔的字符串（如 {@code scope}）。
+ *
+ * @author mrys
+ */
+@Data
+public class JwtClaimMapping {
+
+    /**
+     * 用户 ID 对应的声明
+     */
+    private String userIdClaim = "sub";
+
+    /**
+     * 用户名对应的声明
+     */
+    private String usernameClaim = "username";
+
+    /**
+     * 角色对应的声明
+     */
+    private String rolesClaim = "roles";
+
+    /**
+     * 权限对应的声明
+     */
+    private String permissionsClaim = "permissions";
+
+    /**
+     * 角色名前缀，映射时去掉，如 ROLE_
+     */
+    private String rolePrefix;
+
+    /**
+     * 是否将角色和权限压缩为位图，见 {@link top.mrys.auth.token.UserInfo#compact()}
+     * 声明中的名称来自 token，开启后会驻留到全局的名称注册表，只应在角色、权限集合有限时开启
+     */
+    private boolean compact = false;
+}
@@ -0,0 +1,136 @@
+package top.mrys.auth.jwt;
+
+import org.springframework.util.Assert;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用于验证 JWT 签名的密钥
+ * <p>
+ * 密钥在创建时解析一次。{@link Mac}、{@link Signature} 的创建和初始化开销较大，
+ * 这里按密钥维护一个小的对象池，验证时借出、用完归还，不使用 ThreadLocal，在大量虚拟线程下也不会为每个线程创建实例。
+ *
+ * @author mrys
+ */
+public final class JwtKey {
+
+    /**
+     * 每个密钥最多缓存的 Mac、Signature 实例数
+     */
+    private static final int MAX_POOLED = 64;
+
+    private final String keyId;
+    private final JwtAlgorithm algorithm;
+    private final Key key;
+
+    private final Queue<Object> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    private JwtKey(String keyId, JwtAlgorithm algorithm, Key key) {
+        Assert.notNull(algorithm, "algorithm 不能为空");
+        Assert.notNull(key, "key 不能为空");
+        this.keyId = keyId;
+        this.algorithm = algorithm;
+        this.key = key;
+    }
+
+    /**
+     * HS256 密钥
+     */
+    public static JwtKey hmac(String keyId, byte[] secret) {
+        Assert.isTrue(secret != null && secret.length >= 32, "HS256 密钥长度不能小于 256 位");
+        return new JwtKey(keyId, JwtAlgorithm.HS256, new SecretKeySpec(secret, JwtAlgorithm.HS256.getJcaName()));
+    }
+
+    /**
+     * RS256 公钥
+     */
+    public static JwtKey rsa(String keyId, RSAPublicKey publicKey) {
+        return new JwtKey(keyId, JwtAlgorithm.RS256, publicKey);
+    }
+
+    /**
+     * ES256 公钥
+     */
+    public static JwtKey ec(String keyId, ECPublicKey publicKey) {
+        Assert.isTrue(publicKey.getParams().getCurve().getField().getFieldSize() == 256, "ES256 只支持 P-256 曲线");
+        return new JwtKey(keyId, JwtAlgorithm.ES256, publicKey);
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 验证签名
+     *
+     * @param content   签名内容，即 header.payload 的 ASCII 字节
+     * @param length    content 中参与签名的长度
+     * @param signature 签名
+     */
+    public boolean verify(byte[] content, int length, byte[] signature) {
+        Object engine = borrow();
+        try {
+            boolean verified;
+            if (engine instanceof Mac mac) {
+                mac.update(content, 0, length);
+                verified = MessageDigest.isEqual(mac.doFinal(), signature);
+            } else {
+                Signature verifier = (Signature) engine;
+                verifier.update(content, 0, length);
+                verified = verifier.verify(signature);
+            }
+            release(engine);
+            return verified;
+        } catch (GeneralSecurityException e) {
+            // 出错的实例状态未知，不再归还
+            return false;
+        }
+    }
+
+    private Object borrow() {
+        Object engine = pool.poll();
+        if (engine != null) {
+            pooled.decrementAndGet();
+            return engine;
+        }
+        try {
+            if (algorithm.isHmac()) {
+                Mac mac = Mac.getInstance(algorithm.getJcaName());
+                mac.init(key);
+                return mac;
+            }
+            Signature signature = Signature.getInstance(algorithm.getJcaName());
+            signature.initVerify((PublicKey) key);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化 " + algorithm + " 失败", e);
+        }
+    }
+
+    /**
+     * Mac.doFinal、Signature.verify 完成后实例已重置，可以直接复用
+     */
+    private void release(Object engine) {
+        if (pooled.incrementAndGet() <= MAX_POOLED) {
+            pool.offer(engine);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
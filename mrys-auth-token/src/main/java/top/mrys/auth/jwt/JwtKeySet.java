@@ -0,0 +1,45 @@
+package top.mrys.auth.jwt;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不可变的密钥集合，按 kid 查找
+ * JWT 没有 kid 时，只有集合中恰好一个密钥才能匹配
+ *
+ * @author mrys
+ */
+final class JwtKeySet {
+
+    private final Map<String, JwtKey> byId;
+    private final JwtKey single;
+    private final int size;
+
+    JwtKeySet(List<JwtKey> keys) {
+        Map<String, JwtKey> map = new HashMap<>();
+        for (JwtKey key : keys) {
+            if (key.getKeyId() != null) {
+                map.put(key.getKeyId(), key);
+            }
+        }
+        this.byId = map;
+        this.single = keys.size() == 1 ? keys.get(0) : null;
+        this.size = keys.size();
+    }
+
+    JwtKey get(String keyId) {
+        if (keyId == null) {
+            return single;
+        }
+        JwtKey key = byId.get(keyId);
+        if (key == null && single != null && single.getKeyId() == null) {
+            return single;
+        }
+        return key;
+    }
+
+    int size() {
+        return size;
+    }
+}
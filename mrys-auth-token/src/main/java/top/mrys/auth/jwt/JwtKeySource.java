@@ -0,0 +1,26 @@
+package top.mrys.auth.jwt;
+
+/**
+ * JWT 验证密钥来源
+ *
+ * @author mrys
+ * @see StaticJwtKeySource
+ * @see JwksFileKeySource
+ */
+public interface JwtKeySource {
+
+    /**
+     * 查找密钥
+     *
+     * @param keyId JWT 头部的 kid，可能为 null
+     * @return 密钥，找不到时返回 null
+     */
+    JwtKey getKey(String keyId);
+
+    /**
+     * 密钥版本，密钥集合变化（如重新加载）后递增
+     */
+    default long getGeneration() {
+        return 0L;
+    }
+}
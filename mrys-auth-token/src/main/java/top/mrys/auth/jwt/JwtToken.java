@@ -0,0 +1,68 @@
+package top.mrys.auth.jwt;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import top.mrys.auth.token.SimpleToken;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 验证通过的 JWT
+ * 由 {@link JwtTokenValidator} 在验证通过后替换上下文中提取到的 token，头部和载荷只读
+ *
+ * @author mrys
+ */
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class JwtToken extends SimpleToken {
+
+    private final Map<String, Object> header;
+    private final Map<String, Object> claims;
+
+    public JwtToken(String token, String from, String key, Map<String, Object> header, Map<String, Object> claims) {
+        super(token, false, from, key);
+        this.header = header;
+        this.claims = claims;
+    }
+
+    /**
+     * 获取声明
+     */
+    public Object getClaim(String name) {
+        return claims.get(name);
+    }
+
+    /**
+     * sub 声明
+     */
+    public String getSubject() {
+        Object subject = claims.get("sub");
+        return subject == null ? null : subject.toString();
+    }
+
+    /**
+     * iss 声明
+     */
+    public String getIssuer() {
+        Object issuer = claims.get("iss");
+        return issuer == null ? null : issuer.toString();
+    }
+
+    /**
+     * exp 声明，没有时返回 null
+     */
+    public Instant getExpiresAt() {
+        return claims.get("exp") instanceof Number exp ? Instant.ofEpochSecond(exp.longValue()) : null;
+    }
+
+    /**
+     * kid 头部
+     */
+    public String getKeyId() {
+        Object keyId = header.get("kid");
+        return keyId == null ? null : keyId.toString();
+    }
+}
@@ -0,0 +1,431 @@
+package top.mrys.auth.jwt;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import top.mrys.auth.cache.SegmentedLruCache;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenDigest;
+import top.mrys.auth.token.TokenValidator;
+import top.mrys.auth.token.TokenValidatorChain;
+import top.mrys.auth.token.UserInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JWT 验证器
+ * <p>
+ * 在本地完成 JWT 的验证，不需要远程调用：
+ * <ol>
+ *     <li>校验 HS256、RS256、ES256 签名，密钥来自 {@link JwtKeySource}，算法必须与密钥一致，不接受 none</li>
+ *     <li>校验 exp、nbf（允许 clockSkew 的时钟偏差），配置了 issuer、audience 时校验 iss、aud</li>
+ *     <li>按 {@link JwtClaimMapping} 将声明映射为 {@link UserInfo}</li>
+ * </ol>
+ * 验证通过后上下文中的 token 替换为 {@link JwtToken}，表达式中可以通过 #token.claims 访问声明。
+ * <p>
+ * 同一个 token 反复出现时，RSA、ECDSA 验签会成为主要开销，可以通过 {@link #enableVerificationCache(int, Duration)}
+ * 开启验证结果缓存：以 token 摘要为键缓存解析后的声明和用户信息，缓存时间不超过 token 的 exp，
+ * 密钥来源的版本变化后缓存的结果不再使用。缓存的 {@link UserInfo} 在命中的请求之间共享，应视为只读。
+ * <pre>
+ * securityManager.add("api")
+ *         .addTokenExtractors(tokenExtractor)
+ *         .addTokenValidators(new JwtTokenValidator(new JwksFileKeySource(Path.of("/etc/auth/jwks.json"))));
+ * </pre>
+ *
+ * @author mrys
+ */
+@Slf4j
+public class JwtTokenValidator implements TokenValidator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 同一签发方的 JWT 头部通常相同，缓存解析结果
+     */
+    private static final int MAX_CACHED_HEADERS = 256;
+
+    private final JwtKeySource keySource;
+    /**
+     * 只缓存签名验证通过的头部，未认证的请求无法挤占缓存
+     */
+    private final SegmentedLruCache<String, Header> headerCache = new SegmentedLruCache<>(MAX_CACHED_HEADERS);
+
+    private JwtClaimMapping claimMapping = new JwtClaimMapping();
+    private Duration clockSkew = Duration.ofSeconds(60);
+    private String issuer;
+    private String audience;
+    private boolean requireExpiration = true;
+    private Clock clock = Clock.systemUTC();
+
+    private SegmentedLruCache<TokenDigest.Key, Verified> verificationCache;
+    private Duration verificationCacheTtl;
+
+    public JwtTokenValidator(JwtKeySource keySource) {
+        Assert.notNull(keySource, "keySource 不能为空");
+        this.keySource = keySource;
+    }
+
+    /**
+     * 设置声明映射
+     */
+    public JwtTokenValidator setClaimMapping(JwtClaimMapping claimMapping) {
+        this.claimMapping = claimMapping;
+        return this;
+    }
+
+    /**
+     * 设置允许的时钟偏差，默认 60 秒
+     */
+    public JwtTokenValidator setClockSkew(Duration clockSkew) {
+        this.clockSkew = clockSkew;
+        return this;
+    }
+
+    /**
+     * 设置要求的签发方（iss），为 null 时不校验
+     */
+    public JwtTokenValidator setIssuer(String issuer) {
+        this.issuer = issuer;
+        return this;
+    }
+
+    /**
+     * 设置要求的受众（aud），为 null 时不校验
+     */
+    public JwtTokenValidator setAudience(String audience) {
+        this.audience = audience;
+        return this;
+    }
+
+    /**
+     * 设置是否要求 exp 声明，默认要求
+     */
+    public JwtTokenValidator setRequireExpiration(boolean requireExpiration) {
+        this.requireExpiration = requireExpiration;
+        return this;
+    }
+
+    /**
+     * 设置时钟
+     */
+    public JwtTokenValidator setClock(Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    /**
+     * 开启验证结果缓存，只缓存验证通过的结果
+     *
+     * @param maximumSize 最多缓存的 token 数量
+     * @param maxTtl      最长缓存时间，实际缓存时间不超过 token 的剩余有效期
+     */
+    public JwtTokenValidator enableVerificationCache(int maximumSize, Duration maxTtl) {
+        Assert.isTrue(maxTtl != null && !maxTtl.isNegative() && !maxTtl.isZero(), "maxTtl 必须大于 0");
+        this.verificationCache = new SegmentedLruCache<>(maximumSize);
+        this.verificationCacheTtl = maxTtl;
+        return this;
+    }
+
+    /**
+     * 验证结果缓存，未开启时返回 null
+     */
+    public SegmentedLruCache<?, ?> getVerificationCache() {
+        return verificationCache;
+    }
+
+    /**
+     * 清空验证结果缓存
+     */
+    public void invalidateVerificationCache() {
+        if (verificationCache != null) {
+            verificationCache.invalidateAll();
+        }
+    }
+
+    public JwtKeySource getKeySource() {
+        return keySource;
+    }
+
+    /**
+     * 只处理 header.payload.signature 形式的 token
+     */
+    @Override
+    public boolean support(Token token) {
+        if (!(token instanceof SimpleToken simpleToken) || simpleToken.getToken() == null) {
+            return false;
+        }
+        String value = stripBearer(simpleToken.getToken());
+        int first = value.indexOf('.');
+        int second = first < 0 ? -1 : value.indexOf('.', first + 1);
+        return first > 0 && second > first + 1 && value.indexOf('.', second + 1) < 0;
+    }
+
+    @Override
+    public void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        SimpleToken source = (SimpleToken) ctx.getToken();
+        String jwt = stripBearer(source.getToken());
+        JwtToken token;
+        UserInfo userInfo;
+        SegmentedLruCache<TokenDigest.Key, Verified> cache = this.verificationCache;
+        if (cache == null) {
+            token = decode(source, jwt);
+            userInfo = toUserInfo(token);
+        } else {
+            TokenDigest.Key digest = TokenDigest.key(jwt);
+            Verified verified = cache.get(digest);
+            if (verified != null && verified.isUsable(keySource.getGeneration(), now())) {
+                token = new JwtToken(jwt, source.getFrom(), source.getKey(), verified.header, verified.claims);
+                userInfo = verified.userInfo;
+            } else {
+                long generation = keySource.getGeneration();
+                token = decode(source, jwt);
+                userInfo = toUserInfo(token);
+                cache(cache, digest, generation, token, userInfo);
+            }
+        }
+        token.setValid(true);
+        ctx.setToken(token);
+        ctx.setUserInfo(userInfo);
+        chain.validate(ctx);
+    }
+
+    /**
+     * 缓存验证结果，缓存时间不超过 token 的剩余有效期
+     * 版本在验证前读取，验证期间密钥更新时缓存的结果会在下次读取时被丢弃
+     */
+    private void cache(SegmentedLruCache<TokenDigest.Key, Verified> cache, TokenDigest.Key digest, long generation,
+                       JwtToken token, UserInfo userInfo) {
+        long expiresAt = token.getClaim("exp") instanceof Number exp
+                ? exp.longValue() + clockSkew.getSeconds() : Long.MAX_VALUE;
+        Duration ttl = verificationCacheTtl;
+        if (expiresAt != Long.MAX_VALUE) {
+            long remaining = expiresAt - now();
+            if (remaining <= 0) {
+                return;
+            }
+            if (remaining < ttl.getSeconds()) {
+                ttl = Duration.ofSeconds(remaining);
+            }
+        }
+        cache.put(digest, new Verified(token.getHeader(), token.getClaims(), userInfo, generation, expiresAt), ttl);
+    }
+
+    private long now() {
+        return clock.instant().getEpochSecond();
+    }
+
+    /**
+     * 解析并验证 JWT
+     */
+    JwtToken decode(SimpleToken source, String jwt) throws TokenException {
+        int first = jwt.indexOf('.');
+        int second = jwt.indexOf('.', first + 1);
+
+        String encodedHeader = jwt.substring(0, first);
+        Header header = headerCache.get(encodedHeader);
+        boolean cachedHeader = header != null;
+        byte[] payload;
+        byte[] signature;
+        try {
+            if (header == null) {
+                header = new Header(Collections.unmodifiableMap(
+                        OBJECT_MAPPER.readValue(DECODER.decode(encodedHeader), MAP_TYPE)));
+            }
+            payload = DECODER.decode(jwt.substring(first + 1, second));
+            signature = DECODER.decode(jwt.substring(second + 1));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new TokenException(source, "token 格式无效");
+        }
+
+        if (header.algorithm == null) {
+            throw new TokenException(source, "不支持的 token 签名算法");
+        }
+        JwtKey key = keySource.getKey(header.keyId);
+        if (key == null || key.getAlgorithm() != header.algorithm) {
+            // 算法必须与密钥一致，防止用公钥作为 HMAC 密钥伪造签名
+            throw new TokenException(source, "找不到 token 的验证密钥");
+        }
+        byte[] content = jwt.getBytes(StandardCharsets.US_ASCII);
+        if (!key.verify(content, second, signature)) {
+            throw new TokenException(source, "token 签名无效");
+        }
+        if (!cachedHeader) {
+            headerCache.put(encodedHeader, header);
+        }
+
+        Map<String, Object> claims;
+        try {
+            claims = Collections.unmodifiableMap(OBJECT_MAPPER.readValue(payload, MAP_TYPE));
+        } catch (IOException e) {
+            throw new TokenException(source, "token 格式无效");
+        }
+        checkClaims(source, claims);
+        return new JwtToken(jwt, source.getFrom(), source.getKey(), header.values, claims);
+    }
+
+    private void checkClaims(Token source, Map<String, Object> claims) throws TokenException {
+        long now = now();
+        long skew = clockSkew.getSeconds();
+        Object exp = claims.get("exp");
+        if (exp instanceof Number expiresAt) {
+            if (now - skew >= expiresAt.longValue()) {
+                throw new TokenException(source, "token 已过期");
+            }
+        } else if (requireExpiration) {
+            throw new TokenException(source, "token 缺少过期时间");
+        }
+        if (claims.get("nbf") instanceof Number notBefore && now + skew < notBefore.longValue()) {
+            throw new TokenException(source, "token 尚未生效");
+        }
+        if (issuer != null && !issuer.equals(claims.get("iss"))) {
+            throw new TokenException(source, "token 签发方不匹配");
+        }
+        if (audience != null) {
+            Object aud = claims.get("aud");
+            boolean matched = aud instanceof Collection<?> audiences ? audiences.contains(audience) : audience.equals(aud);
+            if (!matched) {
+                throw new TokenException(source, "token 受众不匹配");
+            }
+        }
+    }
+
+    /**
+     * 将声明映射为用户信息
+     */
+    protected UserInfo toUserInfo(JwtToken token) {
+        JwtClaimMapping mapping = this.claimMapping;
+        Map<String, Object> claims = token.getClaims();
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId(asString(claim(claims, mapping.getUserIdClaim())));
+        userInfo.setUsername(asString(claim(claims, mapping.getUsernameClaim())));
+        userInfo.setRoles(asNames(claim(claims, mapping.getRolesClaim()), mapping.getRolePrefix()));
+        userInfo.setPermissions(asNames(claim(claims, mapping.getPermissionsClaim()), null));
+        return mapping.isCompact() ? userInfo.compact() : userInfo;
+    }
+
+    /**
+     * 按路径读取声明，路径用点号分隔
+     */
+    private static Object claim(Map<String, Object> claims, String path) {
+        if (path == null) {
+            return null;
+        }
+        Object current = claims;
+        int start = 0;
+        while (current instanceof Map<?, ?> map) {
+            int dot = path.indexOf('.', start);
+            String name = dot < 0 ? path.substring(start) : path.substring(start, dot);
+            current = map.get(name);
+            if (dot < 0) {
+                return current;
+            }
+            start = dot + 1;
+        }
+        return null;
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Set<String> asNames(Object value, String prefix) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                if (item != null) {
+                    addName(names, item.toString(), prefix);
+                }
+            }
+        } else {
+            String text = value.toString();
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean separator = i == text.length() || text.charAt(i) == ' ' || text.charAt(i) == ',';
+                if (separator && start >= 0) {
+                    addName(names, text.substring(start, i), prefix);
+                    start = -1;
+                } else if (!separator && start < 0) {
+                    start = i;
+                }
+            }
+        }
+        return names;
+    }
+
+    private static void addName(Set<String> names, String name, String prefix) {
+        if (prefix != null && name.startsWith(prefix)) {
+            name = name.substring(prefix.length());
+        }
+        if (!name.isEmpty()) {
+            names.add(name);
+        }
+    }
+
+    private static String stripBearer(String value) {
+        if (value.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return value.substring(7).trim();
+        }
+        return value.trim();
+    }
+
+    /**
+     * 缓存的验证结果
+     */
+    private static final class Verified {
+        private final Map<String, Object> header;
+        private final Map<String, Object> claims;
+        private final UserInfo userInfo;
+        private final long generation;
+        private final long expiresAt;
+
+        private Verified(Map<String, Object> header, Map<String, Object> claims, UserInfo userInfo,
+                         long generation, long expiresAt) {
+            this.header = header;
+            this.claims = claims;
+            this.userInfo = userInfo;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * 缓存时间按单调时钟计算，这里再按 exp 检查一次，避免系统时钟调整后继续使用已过期的结果
+         */
+        private boolean isUsable(long currentGeneration, long now) {
+            return generation == currentGeneration && now < expiresAt;
+        }
+    }
+
+    /**
+     * 解析后的 JWT 头部
+     */
+    private static final class Header {
+        private final Map<String, Object> values;
+        private final JwtAlgorithm algorithm;
+        private final String keyId;
+
+        private Header(Map<String, Object> values) {
+            this.values = values;
+            this.algorithm = JwtAlgorithm.of(asString(values.get("alg")));
+            this.keyId = asString(values.get("kid"));
+        }
+    }
+}
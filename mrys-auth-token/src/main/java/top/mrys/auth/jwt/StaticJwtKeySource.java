@@ -0,0 +1,25 @@
+package top.mrys.auth.jwt;
+
+import java.util.List;
+
+/**
+ * 固定的密钥集合
+ * <pre>
+ * new StaticJwtKeySource(JwtKey.hmac(null, secret))
+ * </pre>
+ *
+ * @author mrys
+ */
+public class StaticJwtKeySource implements JwtKeySource {
+
+    private final JwtKeySet keys;
+
+    public StaticJwtKeySource(JwtKey... keys) {
+        this.keys = new JwtKeySet(List.of(keys));
+    }
+
+    @Override
+    public JwtKey getKey(String keyId) {
+        return keys.get(keyId);
+    }
+}
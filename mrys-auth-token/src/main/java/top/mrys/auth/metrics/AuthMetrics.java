@@ -0,0 +1,41 @@
+package top.mrys.auth.metrics;
+
+/**
+ * 认证指标
+ * <p>
+ * {@link #isEnabled()} 返回 false 时调用方不计时，禁用监控的开销只有一次判断。
+ *
+ * @author mrys
+ * @see MicrometerAuthMetrics
+ */
+public interface AuthMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    AuthMetrics NOOP = new AuthMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordStage(AuthStage stage, String configName, boolean success, long nanos) {
+        }
+    };
+
+    /**
+     * 是否记录指标
+     */
+    boolean isEnabled();
+
+    /**
+     * 记录一个阶段的耗时
+     *
+     * @param stage      阶段
+     * @param configName 安全配置名称，未匹配时为 null
+     * @param success    是否成功
+     * @param nanos      耗时（纳秒）
+     */
+    void recordStage(AuthStage stage, String configName, boolean success, long nanos);
+}
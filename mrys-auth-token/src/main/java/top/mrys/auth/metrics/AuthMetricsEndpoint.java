@@ -0,0 +1,84 @@
+package top.mrys.auth.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证指标端点（/actuator/auth）
+ * 汇总各认证阶段的耗时和缓存统计，数据来自 {@link MicrometerAuthMetrics} 注册的指标
+ *
+ * @author mrys
+ */
+@Endpoint(id = "auth")
+public class AuthMetricsEndpoint {
+
+    private final MeterRegistry registry;
+
+    public AuthMetricsEndpoint(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stages", stages());
+        result.put("caches", caches());
+        return result;
+    }
+
+    private List<Map<String, Object>> stages() {
+        List<Map<String, Object>> stages = new ArrayList<>();
+        for (Timer timer : registry.find(MicrometerAuthMetrics.STAGE_TIMER).timers()) {
+            if (timer.count() == 0) {
+                continue;
+            }
+            Map<String, Object> stage = tags(timer.getId().getTags());
+            stage.put("count", timer.count());
+            stage.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+            stage.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            stage.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            stages.add(stage);
+        }
+        return stages;
+    }
+
+    private List<Map<String, Object>> caches() {
+        List<Map<String, Object>> caches = new ArrayList<>();
+        for (Gauge size : registry.find(MicrometerAuthMetrics.CACHE_PREFIX + "size").gauges()) {
+            List<Tag> tags = size.getId().getTags();
+            Map<String, Object> cache = tags(tags);
+            cache.put("size", (long) size.value());
+            Gauge hitRatio = registry.find(MicrometerAuthMetrics.CACHE_PREFIX + "hit.ratio").tags(tags).gauge();
+            cache.put("hitRatio", hitRatio == null ? null : hitRatio.value());
+            cache.put("hits", count(MicrometerAuthMetrics.CACHE_PREFIX + "hits", tags));
+            cache.put("misses", count(MicrometerAuthMetrics.CACHE_PREFIX + "misses", tags));
+            cache.put("evictions", count(MicrometerAuthMetrics.CACHE_PREFIX + "evictions", tags));
+            caches.add(cache);
+        }
+        return caches;
+    }
+
+    private Long count(String name, List<Tag> tags) {
+        FunctionCounter counter = registry.find(name).tags(tags).functionCounter();
+        return counter == null ? null : (long) counter.count();
+    }
+
+    private static Map<String, Object> tags(List<Tag> tags) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Tag tag : tags) {
+            values.put(tag.getKey(), tag.getValue());
+        }
+        return values;
+    }
+}
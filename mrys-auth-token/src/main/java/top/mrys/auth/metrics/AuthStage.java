@@ -0,0 +1,39 @@
+package top.mrys.auth.metrics;
+
+/**
+ * 认证阶段
+ *
+ * @author mrys
+ */
+public enum AuthStage {
+
+    /**
+     * 限流检查
+     */
+    RATE_LIMIT,
+
+    /**
+     * 匹配安全配置
+     */
+    MATCH,
+
+    /**
+     * 提取 token
+     */
+    EXTRACT,
+
+    /**
+     * 执行验证器链
+     */
+    VALIDATE,
+
+    /**
+     * 权限检查（SpEL 表达式求值）
+     */
+    PERMISSION,
+
+    /**
+     * 整个认证过程
+     */
+    TOTAL
+}
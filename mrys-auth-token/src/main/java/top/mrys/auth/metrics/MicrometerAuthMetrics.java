@@ -0,0 +1,116 @@
+package top.mrys.auth.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import top.mrys.auth.cache.SegmentedLruCache;
+import top.mrys.auth.revocation.RevocationCheckingValidator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Micrometer 的认证指标
+ * <ul>
+ *     <li>mrys.auth.stage：各认证阶段的耗时，标签 stage、config、outcome</li>
+ *     <li>mrys.auth.cache.*：缓存的大小、命中率、命中/未命中/淘汰次数，标签 cache、config</li>
+ *     <li>mrys.auth.revocation.*：吊销检查次数和过滤器命中后的精确检查次数，标签 config</li>
+ * </ul>
+ * 计时器按安全配置名称缓存，记录时不创建对象。
+ *
+ * @author mrys
+ */
+public class MicrometerAuthMetrics implements AuthMetrics {
+
+    public static final String STAGE_TIMER = "mrys.auth.stage";
+    public static final String CACHE_PREFIX = "mrys.auth.cache.";
+
+    /**
+     * 未匹配安全配置时的 config 标签值
+     */
+    private static final String NO_CONFIG = "none";
+
+    private static final AuthStage[] STAGES = AuthStage.values();
+
+    private final MeterRegistry registry;
+
+    /**
+     * 安全配置名称到计时器数组，下标为 stage.ordinal() * 2 + (success ? 0 : 1)
+     */
+    private final ConcurrentMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public MicrometerAuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordStage(AuthStage stage, String configName, boolean success, long nanos) {
+        String config = configName == null ? NO_CONFIG : configName;
+        Timer[] configTimers = timers.get(config);
+        if (configTimers == null) {
+            configTimers = timers.computeIfAbsent(config, this::createTimers);
+        }
+        configTimers[stage.ordinal() * 2 + (success ? 0 : 1)].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] createTimers(String config) {
+        Timer[] created = new Timer[STAGES.length * 2];
+        for (AuthStage stage : STAGES) {
+            String name = stage.name().toLowerCase();
+            created[stage.ordinal() * 2] = Timer.builder(STAGE_TIMER)
+                    .description("认证各阶段耗时")
+                    .tags("stage", name, "config", config, "outcome", "success")
+                    .register(registry);
+            created[stage.ordinal() * 2 + 1] = Timer.builder(STAGE_TIMER)
+                    .description("认证各阶段耗时")
+                    .tags("stage", name, "config", config, "outcome", "failure")
+                    .register(registry);
+        }
+        return created;
+    }
+
+    /**
+     * 注册缓存指标
+     *
+     * @param cacheName  缓存名称
+     * @param configName 所属安全配置名称，不属于某个配置时为 null
+     * @param cache      缓存
+     */
+    public void bindCache(String cacheName, String configName, SegmentedLruCache<?, ?> cache) {
+        Tags tags = Tags.of("cache", cacheName, "config", configName == null ? NO_CONFIG : configName);
+        Gauge.builder(CACHE_PREFIX + "size", cache, SegmentedLruCache::size)
+                .description("缓存条目数").tags(tags).register(registry);
+        Gauge.builder(CACHE_PREFIX + "hit.ratio", cache, SegmentedLruCache::getHitRate)
+                .description("缓存命中率").tags(tags).register(registry);
+        FunctionCounter.builder(CACHE_PREFIX + "hits", cache, SegmentedLruCache::getHitCount)
+                .description("缓存命中次数").tags(tags).register(registry);
+        FunctionCounter.builder(CACHE_PREFIX + "misses", cache, SegmentedLruCache::getMissCount)
+                .description("缓存未命中次数").tags(tags).register(registry);
+        FunctionCounter.builder(CACHE_PREFIX + "evictions", cache, SegmentedLruCache::getEvictionCount)
+                .description("缓存淘汰次数").tags(tags).register(registry);
+    }
+
+    /**
+     * 注册吊销检查指标
+     */
+    public void bindRevocation(String configName, RevocationCheckingValidator validator) {
+        Tags tags = Tags.of("config", configName == null ? NO_CONFIG : configName);
+        FunctionCounter.builder("mrys.auth.revocation.checks", validator, RevocationCheckingValidator::getCheckCount)
+                .description("吊销检查次数").tags(tags).register(registry);
+        FunctionCounter.builder("mrys.auth.revocation.exact.checks", validator,
+                        RevocationCheckingValidator::getExactCheckCount)
+                .description("布隆过滤器命中后的精确检查次数").tags(tags).register(registry);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+}
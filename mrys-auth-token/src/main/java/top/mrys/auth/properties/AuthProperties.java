@@ -2,6 +2,11 @@ package top.mrys.auth.properties;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.util.unit.DataSize;
+import top.mrys.auth.audit.AuditFullPolicy;
+
+import java.time.Duration;
 
 /**
  * 认证框架配置属性
@@ -59,6 +64,31 @@ public class AuthProperties {
      */
     private ExceptionConfig exception = new ExceptionConfig();
 
+    /**
+     * 认证上下文配置
+     */
+    private ContextConfig context = new ContextConfig();
+
+    /**
+     * 异步任务配置
+     */
+    private AsyncConfig async = new AsyncConfig();
+
+    /**
+     * 限流配置
+     */
+    private RateLimitConfig rateLimit = new RateLimitConfig();
+
+    /**
+     * 审计日志配置
+     */
+    private AuditConfig audit = new AuditConfig();
+
+    /**
+     * 监控指标配置
+     */
+    private MetricsConfig metrics = new MetricsConfig();
+
     /**
      * Token 相关配置
      */
@@ -93,6 +123,15 @@ public class AuthProperties {
          * 是否启用从 Cookie 提取 Token
          */
         private boolean enableCookieExtraction = true;
+
+        /**
+         * 是否去掉 Token 的 "Bearer " 前缀
+         * <p>
+         * 默认关闭，与之前的 {@link top.mrys.auth.token.SimpleTokenExtractor} 一致，验证器拿到的是请求头的原始值；
+         * 开启后验证器收到的 token 不再带 "Bearer " 前缀，自定义验证器需要相应调整。
+         * 内置的 JWT 与会话验证器两种情况都能处理。
+         */
+        private boolean stripBearerPrefix = false;
     }
 
     /**
@@ -114,6 +153,22 @@ public class AuthProperties {
          * 是否启用安全模式（禁用一些危险的 SpEL 功能）
          */
         private boolean secureMode = true;
+
+        /**
+         * SpEL 字节码编译模式
+         * OFF：解释执行；IMMEDIATE：首次执行后立即编译；MIXED：执行一定次数后编译，编译后执行出错时回退到解释模式
+         */
+        private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+
+        /**
+         * 启用编译时，是否在启动时预编译所有 @CheckAuth 表达式
+         */
+        private boolean precompile = true;
+
+        /**
+         * 是否将常见的权限表达式（#hasRole、#hasPermission 等函数与 and/or/not 的组合）直接编译为原生断言，不经过 SpEL
+         */
+        private boolean nativeCompile = true;
     }
 
     /**
@@ -146,4 +201,179 @@ public class AuthProperties {
          */
         private String defaultErrorMessage = "认证失败";
     }
-}
\ No newline at end of file
+
+    /**
+     * 认证上下文相关配置
+     */
+    @Data
+    public static class ContextConfig {
+        /**
+         * 认证上下文的存储方式
+         */
+        private ContextMode mode = ContextMode.THREAD_LOCAL;
+    }
+
+    /**
+     * 异步任务相关配置
+     */
+    @Data
+    public static class AsyncConfig {
+        /**
+         * 是否注册传递认证上下文的 TaskDecorator，@Async 等异步任务中可以读取提交线程的认证上下文
+         */
+        private boolean taskDecorator = true;
+    }
+
+    /**
+     * 限流相关配置
+     */
+    @Data
+    public static class RateLimitConfig {
+        /**
+         * 是否启用限流
+         */
+        private boolean enabled = false;
+
+        /**
+         * 限流键
+         */
+        private RateLimitKey key = RateLimitKey.IP;
+
+        /**
+         * 是否只对认证失败计数，为 false 时对所有请求计数
+         */
+        private boolean failuresOnly = true;
+
+        /**
+         * 每个周期补充的许可数
+         */
+        private int permits = 10;
+
+        /**
+         * 补充许可的周期
+         */
+        private Duration period = Duration.ofMinutes(1);
+
+        /**
+         * 允许的突发数
+         */
+        private int burst = 10;
+
+        /**
+         * 最多跟踪的键数，超过后优先移除空闲的键
+         */
+        private int maxKeys = 100_000;
+
+        /**
+         * 按 IP 限流时是否信任 X-Forwarded-For 请求头，只应在可信的反向代理之后开启
+         */
+        private boolean trustForwardedFor = false;
+
+        /**
+         * 按请求参数限流时的参数名
+         */
+        private String parameterName = "username";
+    }
+
+    /**
+     * 审计日志相关配置
+     */
+    @Data
+    public static class AuditConfig {
+        /**
+         * 是否启用审计日志
+         */
+        private boolean enabled = false;
+
+        /**
+         * 日志目录
+         */
+        private String directory = "logs";
+
+        /**
+         * 日志文件名
+         */
+        private String fileName = "auth-audit.log";
+
+        /**
+         * 单个日志文件的最大大小，超过后滚动
+         */
+        private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+        /**
+         * 保留的历史文件数
+         */
+        private int maxHistory = 7;
+
+        /**
+         * 缓冲区容量（事件数），向上取整为 2 的幂
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * 每批写入的最大事件数
+         */
+        private int batchSize = 256;
+
+        /**
+         * 缓冲区为空时写入线程的等待间隔
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * 缓冲区满时的处理策略（DROP、BLOCK、SAMPLE）
+         */
+        private AuditFullPolicy fullPolicy = AuditFullPolicy.DROP;
+
+        /**
+         * SAMPLE 策略下成功事件的采样间隔，每 sampleRate 个保留 1 个
+         */
+        private int sampleRate = 10;
+    }
+
+    /**
+     * 监控指标相关配置
+     */
+    @Data
+    public static class MetricsConfig {
+        /**
+         * 是否记录认证指标，需要 Micrometer 和 MeterRegistry
+         */
+        private boolean enabled = true;
+    }
+
+    /**
+     * 限流键
+     */
+    public enum RateLimitKey {
+        /**
+         * 客户端 IP
+         */
+        IP,
+
+        /**
+         * 请求参数，如登录接口的用户名
+         */
+        PARAMETER,
+
+        /**
+         * token（去掉认证方案后的摘要），从 token.header-names 配置的请求头读取
+         */
+        TOKEN
+    }
+
+    /**
+     * 认证上下文的存储方式
+     */
+    public enum ContextMode {
+        /**
+         * 存储在 ThreadLocal 中，请求结束后清理
+         */
+        THREAD_LOCAL,
+
+        /**
+         * 存储在 ScopedValue 绑定的作用域中，作用域结束后自动失效，适合虚拟线程
+         */
+        SCOPED_VALUE
+    }
+}
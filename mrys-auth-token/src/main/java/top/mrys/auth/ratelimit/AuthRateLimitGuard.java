@@ -0,0 +1,80 @@
+package top.mrys.auth.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证限流守卫
+ * <p>
+ * 由 {@link top.mrys.auth.interceptor.AuthInterceptor} 在提取 token、执行验证器和权限表达式之前调用，
+ * 被限流的请求直接以 429 拒绝，不会到达用户查询等下游逻辑。
+ * <ul>
+ *     <li>failuresOnly 为 false 时每个请求消耗一个许可</li>
+ *     <li>failuresOnly 为 true 时只有认证失败消耗许可，失败次数超过限制后该键的所有请求都被拒绝，直到许可恢复</li>
+ * </ul>
+ *
+ * @author mrys
+ */
+public class AuthRateLimitGuard {
+
+    private final AuthRateLimiter limiter;
+    private final RateLimitKeyResolver keyResolver;
+    private final boolean failuresOnly;
+
+    public AuthRateLimitGuard(AuthRateLimiter limiter, RateLimitKeyResolver keyResolver, boolean failuresOnly) {
+        Assert.notNull(limiter, "limiter 不能为空");
+        Assert.notNull(keyResolver, "keyResolver 不能为空");
+        this.limiter = limiter;
+        this.keyResolver = keyResolver;
+        this.failuresOnly = failuresOnly;
+    }
+
+    /**
+     * 检查请求是否被限流
+     *
+     * @return 限流键，请求没有限流键时返回 null
+     * @throws RateLimitExceededException 请求被限流
+     */
+    public String check(HttpServletRequest request) throws RateLimitExceededException {
+        String key = keyResolver.resolve(request);
+        if (key == null) {
+            return null;
+        }
+        if (failuresOnly) {
+            long wait = limiter.getWaitNanos(key);
+            if (wait > 0) {
+                throw new RateLimitExceededException("认证失败次数过多，请稍后再试", toSeconds(wait));
+            }
+        } else {
+            long wait = limiter.tryAcquire(key);
+            if (wait > 0) {
+                throw new RateLimitExceededException("请求过于频繁，请稍后再试", toSeconds(wait));
+            }
+        }
+        return key;
+    }
+
+    /**
+     * 向上取整到秒
+     */
+    private static long toSeconds(long nanos) {
+        return Math.max(1L, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * 记录认证失败
+     *
+     * @param key {@link #check(HttpServletRequest)} 返回的限流键
+     */
+    public void onFailure(String key) {
+        if (failuresOnly && key != null) {
+            limiter.tryAcquire(key);
+        }
+    }
+
+    public AuthRateLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -0,0 +1,170 @@
+package top.mrys.auth.ratelimit;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁限流器
+ * <p>
+ * 使用 GCRA（通用信元速率算法）：每个键只保存一个"理论到达时间"（TAT），获取许可时通过 CAS 推进，
+ * 效果等同于容量为 burst、每 period 补充 permits 个许可的令牌桶，但每个键只占一个 long。
+ * <p>
+ * 键分散在多个分片中，每个分片的键数有上限。分片满时先移除已经完全恢复的空闲键，
+ * 空闲键的状态与不存在等价，移除不会丢失信息；仍然满时抽样移除最接近空闲的键。
+ *
+ * @author mrys
+ */
+public class AuthRateLimiter {
+
+    /**
+     * 分片满时抽样的键数
+     */
+    private static final int EVICTION_SAMPLES = 16;
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeysPerShard;
+    private final Shard[] shards;
+    private final int shardMask;
+
+    /**
+     * @param permits 每个周期补充的许可数
+     * @param period  周期
+     * @param burst   允许的突发数，即空闲后可以立即获取的许可数
+     * @param maxKeys 最多跟踪的键数
+     */
+    public AuthRateLimiter(int permits, Duration period, int burst, int maxKeys) {
+        Assert.isTrue(permits > 0, "permits 必须大于 0");
+        Assert.isTrue(period != null && !period.isNegative() && !period.isZero(), "period 必须大于 0");
+        Assert.isTrue(burst > 0, "burst 必须大于 0");
+        Assert.isTrue(maxKeys > 0, "maxKeys 必须大于 0");
+        this.emissionIntervalNanos = Math.max(1L, period.toNanos() / permits);
+        this.toleranceNanos = emissionIntervalNanos * burst;
+        int shardCount = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4));
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = shardCount - 1;
+        this.maxKeysPerShard = Math.max(1, maxKeys / shardCount);
+    }
+
+    /**
+     * 获取一个许可
+     *
+     * @return 0 表示获取成功，否则为需要等待的纳秒数
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong tat = bucket(key, now);
+        for (; ; ) {
+            long current = tat.get();
+            long next = (current - now < 0 ? now : current) + emissionIntervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * 不消耗许可，判断下一次获取是否会被拒绝
+     */
+    public boolean isLimited(String key) {
+        return getWaitNanos(key) > 0;
+    }
+
+    /**
+     * 不消耗许可，计算下一次获取需要等待的时间
+     *
+     * @return 0 表示可以立即获取，否则为需要等待的纳秒数
+     */
+    public long getWaitNanos(String key) {
+        AtomicLong tat = shard(key).buckets.get(key);
+        if (tat == null) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        long current = tat.get();
+        return Math.max(0L, (current - now < 0 ? now : current) + emissionIntervalNanos - now - toleranceNanos);
+    }
+
+    /**
+     * 重置键的状态，如登录成功后清除失败记录
+     */
+    public void reset(String key) {
+        shard(key).buckets.remove(key);
+    }
+
+    /**
+     * 当前跟踪的键数
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.buckets.size();
+        }
+        return size;
+    }
+
+    private Shard shard(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Shard shard = shard(key);
+        AtomicLong tat = shard.buckets.get(key);
+        if (tat != null) {
+            return tat;
+        }
+        if (shard.buckets.size() >= maxKeysPerShard) {
+            evict(shard, now);
+        }
+        return shard.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * 清理分片，同一时间只有一个线程清理，其他线程不等待
+     */
+    private void evict(Shard shard, long now) {
+        if (!shard.evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // 理论到达时间已过的键处于完全恢复状态，与不存在等价
+            shard.buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+            if (shard.buckets.size() < maxKeysPerShard) {
+                return;
+            }
+            Map.Entry<String, AtomicLong> victim = null;
+            Iterator<Map.Entry<String, AtomicLong>> iterator = shard.buckets.entrySet().iterator();
+            for (int i = 0; i < EVICTION_SAMPLES && iterator.hasNext(); i++) {
+                Map.Entry<String, AtomicLong> entry = iterator.next();
+                if (victim == null || entry.getValue().get() - victim.getValue().get() < 0) {
+                    victim = entry;
+                }
+            }
+            if (victim != null) {
+                shard.buckets.remove(victim.getKey(), victim.getValue());
+            }
+        } finally {
+            shard.evicting.set(false);
+        }
+    }
+
+    private static final class Shard {
+        private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,23 @@
+package top.mrys.auth.ratelimit;
+
+import lombok.Getter;
+import top.mrys.auth.exceptions.TokenException;
+
+/**
+ * 请求过于频繁
+ *
+ * @author mrys
+ */
+@Getter
+public class RateLimitExceededException extends TokenException {
+
+    /**
+     * 建议的重试等待秒数
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(null, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
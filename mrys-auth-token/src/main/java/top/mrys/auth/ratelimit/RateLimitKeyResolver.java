@@ -0,0 +1,68 @@
+package top.mrys.auth.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import top.mrys.auth.token.TokenDigest;
+
+/**
+ * 限流键解析器
+ *
+ * @author mrys
+ */
+@FunctionalInterface
+public interface RateLimitKeyResolver {
+
+    /**
+     * 解析限流键
+     *
+     * @return 限流键，返回 null 时不限流
+     */
+    String resolve(HttpServletRequest request);
+
+    /**
+     * 按客户端 IP 限流
+     *
+     * @param trustForwardedFor 是否信任 X-Forwarded-For 请求头，只应在可信的反向代理之后开启
+     */
+    static RateLimitKeyResolver clientIp(boolean trustForwardedFor) {
+        return request -> {
+            if (trustForwardedFor) {
+                String forwarded = request.getHeader("X-Forwarded-For");
+                if (forwarded != null && !forwarded.isEmpty()) {
+                    int comma = forwarded.indexOf(',');
+                    return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+                }
+            }
+            return request.getRemoteAddr();
+        };
+    }
+
+    /**
+     * 按请求参数限流，如登录接口的用户名
+     */
+    static RateLimitKeyResolver parameter(String name) {
+        return request -> {
+            String value = request.getParameter(name);
+            return value == null || value.isEmpty() ? null : value;
+        };
+    }
+
+    /**
+     * 按 token 限流，依次读取请求头，取第一个非空值
+     * <p>
+     * 去掉认证方案（如 "Bearer "）后以 token 的 SHA-256 摘要作为键。不使用 token 的固定长度前缀：
+     * 同一签发方的 JWT 头部相同，前缀相同的 token 会共用一个键，一个客户端的失败会让所有用户被限流。
+     */
+    static RateLimitKeyResolver token(String[] headerNames) {
+        return request -> {
+            for (String headerName : headerNames) {
+                String value = request.getHeader(headerName);
+                if (value != null && !value.isBlank()) {
+                    int space = value.indexOf(' ');
+                    String credentials = space < 0 ? value : value.substring(space + 1).trim();
+                    return credentials.isEmpty() ? null : TokenDigest.of(credentials);
+                }
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package top.mrys.auth.reactive;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidator;
+import top.mrys.auth.token.TokenValidatorChain;
+
+/**
+ * 将阻塞的 {@link TokenValidator} 适配为 {@link ReactiveTokenValidator}
+ * <p>
+ * 验证在 {@link Schedulers#boundedElastic()} 上执行，不阻塞事件循环线程。
+ * 执行期间把上下文绑定到当前线程，读取 {@link TokenContext#get()} 或设置新上下文的验证器都可以直接使用。
+ *
+ * @author mrys
+ */
+public class BlockingTokenValidatorAdapter implements ReactiveTokenValidator {
+
+    private final TokenValidator delegate;
+    private final Scheduler scheduler;
+
+    public BlockingTokenValidatorAdapter(TokenValidator delegate) {
+        this(delegate, Schedulers.boundedElastic());
+    }
+
+    public BlockingTokenValidatorAdapter(TokenValidator delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public boolean support(Token token) {
+        return delegate.support(token);
+    }
+
+    @Override
+    public Mono<Boolean> validate(TokenContext ctx) {
+        return Mono.fromCallable(() -> invoke(ctx)).subscribeOn(scheduler);
+    }
+
+    private boolean invoke(TokenContext ctx) {
+        return TokenContext.callWith(ctx, () -> {
+            boolean proceed = TokenValidatorChain.invoke(delegate, ctx);
+            // 验证器设置了新的线程上下文时，把用户信息带回响应式上下文
+            TokenContext current = TokenContext.get();
+            if (current != null && current != ctx && current.getUserInfo() != null) {
+                ctx.setUserInfo(current.getUserInfo());
+            }
+            return proceed;
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package top.mrys.auth.reactive;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.token.ConfigurableTokenExtractor;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+
+import java.util.List;
+
+/**
+ * 按 {@link AuthProperties.TokenConfig} 提取 token 的响应式提取器
+ * <p>
+ * 查找顺序和值的处理与 {@link ConfigurableTokenExtractor} 相同：请求头（按配置顺序）、查询参数、Cookie，
+ * 未启用的来源不会检查，同一份配置在 Servlet 和 WebFlux 应用中行为一致。
+ *
+ * @author mrys
+ */
+public class ConfigurableReactiveTokenExtractor implements ReactiveTokenExtractor {
+
+    private final ConfigurableTokenExtractor plan;
+    private final String[] headerNames;
+    private final String parameterName;
+    private final String cookieName;
+
+    public ConfigurableReactiveTokenExtractor(AuthProperties.TokenConfig config) {
+        this.plan = new ConfigurableTokenExtractor(config);
+        this.headerNames = plan.getHeaderNames();
+        this.parameterName = plan.getParameterName();
+        this.cookieName = plan.getCookieName();
+    }
+
+    @Override
+    public Mono<Token> extract(ServerWebExchange exchange) {
+        return Mono.justOrEmpty(extract(exchange.getRequest()));
+    }
+
+    /**
+     * 从指定请求中提取 token
+     *
+     * @return token，不存在时返回 null
+     */
+    public Token extract(ServerHttpRequest request) {
+        for (String headerName : headerNames) {
+            String value = plan.normalize(request.getHeaders().getFirst(headerName));
+            if (value != null) {
+                return new SimpleToken(value, false, "header", headerName);
+            }
+        }
+        if (parameterName != null) {
+            String value = plan.normalize(request.getQueryParams().getFirst(parameterName));
+            if (value != null) {
+                return new SimpleToken(value, false, "query", parameterName);
+            }
+        }
+        if (cookieName != null) {
+            List<HttpCookie> cookies = request.getCookies().get(cookieName);
+            if (cookies != null) {
+                for (HttpCookie cookie : cookies) {
+                    String value = plan.normalize(cookie.getValue());
+                    if (value != null) {
+                        return new SimpleToken(value, false, "cookie", cookieName);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
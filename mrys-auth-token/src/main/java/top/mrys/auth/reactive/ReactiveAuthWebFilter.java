@@ -0,0 +1,231 @@
+package top.mrys.auth.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.annotation.AuthMetadata;
+import top.mrys.auth.annotation.CheckAuth;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
+import top.mrys.auth.config.SecurityConfigWrapper;
+import top.mrys.auth.config.SecurityManager;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.spel.AuthSpelEvaluator;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 响应式认证过滤器
+ * <p>
+ * WebFlux 中对应 {@link top.mrys.auth.interceptor.AuthInterceptor}，流程相同：
+ * 匹配安全配置、提取并验证 token、检查处理方法上的 {@link CheckAuth}。
+ * 整个过程不阻塞事件循环线程，认证上下文写入 Reactor Context，通过 {@link ReactiveTokenContextHolder} 读取。
+ * <p>
+ * 包含/排除路径与 Spring MVC 的拦截器一样处理：优先解析为 {@link PathPattern}，
+ * {@link PathPatternParser} 不支持的 Ant 风格模式（如 {@code /**}{@code /foo}）改用 {@link AntPathMatcher} 匹配，
+ * 同一份配置在 Servlet 和 WebFlux 应用中都能启动并匹配相同的路径。
+ *
+ * @author mrys
+ */
+@Slf4j
+public class ReactiveAuthWebFilter implements WebFilter, Ordered {
+
+    private final SecurityManager securityManager;
+    private final ReactiveTokenExtractor defaultTokenExtractor;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final AuthSpelEvaluator authSpelEvaluator;
+    private final AuthProperties authProperties;
+    private final AuthMetadataRegistry authMetadataRegistry;
+
+    private static final PathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    private final List<PatternAdapter> includePatterns;
+    private final List<PatternAdapter> excludePatterns;
+
+    /**
+     * @param defaultTokenExtractor 安全配置没有添加响应式提取器时使用
+     * @param handlerMapping        用于查找处理方法，为 null 时只做 token 验证，不检查 {@link CheckAuth}
+     */
+    public ReactiveAuthWebFilter(SecurityManager securityManager,
+                                 ReactiveTokenExtractor defaultTokenExtractor,
+                                 RequestMappingHandlerMapping handlerMapping,
+                                 AuthSpelEvaluator authSpelEvaluator,
+                                 AuthProperties authProperties,
+                                 AuthMetadataRegistry authMetadataRegistry) {
+        this.securityManager = securityManager;
+        this.defaultTokenExtractor = defaultTokenExtractor;
+        this.handlerMapping = handlerMapping;
+        this.authSpelEvaluator = authSpelEvaluator;
+        this.authProperties = authProperties;
+        this.authMetadataRegistry = authMetadataRegistry;
+        this.includePatterns = parse(authProperties.getIncludePatterns());
+        this.excludePatterns = parse(authProperties.getExcludePatterns());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // 如果认证框架未启用，直接放行
+        if (!authProperties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (!isIncluded(path)) {
+            return chain.filter(exchange);
+        }
+
+        // 查找匹配的安全配置，没有匹配时直接放行，不创建认证上下文
+        SecurityConfigWrapper matchedConfig = securityManager.match(path.value());
+        if (matchedConfig == null) {
+            log.debug("未找到匹配的安全配置，放行请求: {}", path.value());
+            return chain.filter(exchange);
+        }
+
+        // 创建认证上下文
+        TokenContext context = new TokenContext();
+
+        return authenticate(matchedConfig, exchange, context)
+                .then(authorize(exchange, context))
+                .thenReturn(Boolean.TRUE)
+                .onErrorResume(TokenException.class, e -> {
+                    log.warn("认证失败: {} - {}", path.value(), e.getMessage());
+                    return handleAuthenticationFailure(exchange, e).thenReturn(Boolean.FALSE);
+                })
+                .onErrorResume(e -> {
+                    log.error("认证过程中发生异常: {}", path.value(), e);
+                    return handleAuthenticationFailure(exchange, new TokenException(null, "认证过程中发生异常"))
+                            .thenReturn(Boolean.FALSE);
+                })
+                .flatMap(passed -> passed ? chain.filter(exchange) : Mono.empty())
+                .contextWrite(ReactiveTokenContextHolder.withContext(context));
+    }
+
+    /**
+     * 提取并验证 token
+     */
+    private Mono<Void> authenticate(SecurityConfigWrapper config, ServerWebExchange exchange, TokenContext context) {
+        List<ReactiveTokenExtractor> extractors = config.getReactiveTokenExtractors();
+        Mono<Token> token = extractors.isEmpty()
+                ? defaultTokenExtractor.extract(exchange)
+                : Flux.fromIterable(extractors).concatMap(extractor -> extractor.extract(exchange)).next();
+        return token.flatMap(value -> {
+            context.setToken(value);
+            return config.getReactiveTokenValidatorChain().validate(context)
+                    .then(Mono.defer(() -> context.getToken().isValid()
+                            ? Mono.<Void>empty()
+                            : Mono.error(new TokenException(context.getToken(), "token 验证未通过"))));
+        });
+    }
+
+    /**
+     * 检查处理方法的权限
+     */
+    private Mono<Void> authorize(ServerWebExchange exchange, TokenContext context) {
+        if (handlerMapping == null) {
+            return Mono.empty();
+        }
+        return handlerMapping.getHandler(exchange)
+                // 找不到处理器、请求方法不支持等情况交给 DispatcherHandler 处理
+                .onErrorResume(e -> Mono.empty())
+                .ofType(HandlerMethod.class)
+                .flatMap(handlerMethod -> Mono.fromRunnable(() -> checkPermission(exchange, handlerMethod, context)));
+    }
+
+    /**
+     * 处理权限验证
+     */
+    private void checkPermission(ServerWebExchange exchange, HandlerMethod handlerMethod, TokenContext context) {
+        // 获取权限元数据
+        AuthMetadata metadata = authMetadataRegistry.get(handlerMethod);
+
+        if (!metadata.hasCheckAuth()) {
+            // 没有权限注解，表示只需要登录即可访问
+            Token token = context.getToken();
+            if (token == null || !token.isValid()) {
+                throw new TokenException(token, "未登录或登录已过期");
+            }
+            return;
+        }
+
+        CheckAuth checkAuth = metadata.getCheckAuth();
+        boolean evaluate = authSpelEvaluator.evaluateReactive(checkAuth.value(), context, exchange.getRequest(),
+                metadata.getVariables());
+        if (!evaluate) {
+            // 如果权限验证失败，抛出异常
+            throw new TokenException(context.getToken(), checkAuth.msg());
+        }
+    }
+
+    /**
+     * 处理认证失败
+     */
+    private Mono<Void> handleAuthenticationFailure(ServerWebExchange exchange, TokenException e) {
+        ServerHttpResponse response = exchange.getResponse();
+        // 设置响应状态码
+        if (e.getToken() == null) {
+            response.setStatusCode(HttpStatusCode.valueOf(authProperties.getException().getAuthFailureStatus()));
+        } else {
+            response.setStatusCode(HttpStatusCode.valueOf(authProperties.getException().getAccessDeniedStatus()));
+        }
+
+        // 设置响应头
+        response.getHeaders().setContentType(MediaType.parseMediaType("application/json;charset=UTF-8"));
+        response.getHeaders().set(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return response.setComplete();
+    }
+
+    private boolean isIncluded(PathContainer path) {
+        boolean included = includePatterns.isEmpty()
+                || includePatterns.stream().anyMatch(pattern -> pattern.matches(path));
+        return included && excludePatterns.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    private static List<PatternAdapter> parse(String[] patterns) {
+        if (patterns == null) {
+            return List.of();
+        }
+        return Arrays.stream(patterns).map(PatternAdapter::of).toList();
+    }
+
+    /**
+     * 路径模式，不能解析为 {@link PathPattern} 时 pathPattern 为 null，使用 {@link AntPathMatcher} 匹配
+     */
+    private record PatternAdapter(String pattern, PathPattern pathPattern) {
+
+        static PatternAdapter of(String pattern) {
+            try {
+                return new PatternAdapter(pattern, PathPatternParser.defaultInstance.parse(pattern));
+            } catch (PatternParseException e) {
+                log.debug("路径模式 {} 不能解析为 PathPattern，使用 AntPathMatcher 匹配: {}", pattern, e.getMessage());
+                return new PatternAdapter(pattern, null);
+            }
+        }
+
+        boolean matches(PathContainer path) {
+            return pathPattern != null ? pathPattern.matches(path) : ANT_PATH_MATCHER.match(pattern, path.value());
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return authProperties.getInterceptorOrder();
+    }
+}
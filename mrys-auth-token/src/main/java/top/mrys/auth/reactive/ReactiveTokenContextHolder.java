@@ -0,0 +1,38 @@
+package top.mrys.auth.reactive;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import top.mrys.auth.token.TokenContext;
+
+/**
+ * 响应式应用中的认证上下文
+ * <p>
+ * WebFlux 中一个请求会在多个线程间切换，{@link TokenContext#get()} 无法使用，
+ * 认证上下文由 {@link ReactiveAuthWebFilter} 写入 Reactor Context，处理方法中通过 {@link #getContext()} 读取：
+ * <pre>
+ * return ReactiveTokenContextHolder.getContext().map(ctx -> ctx.getUserInfo().getUsername());
+ * </pre>
+ *
+ * @author mrys
+ */
+public final class ReactiveTokenContextHolder {
+
+    private static final Class<TokenContext> KEY = TokenContext.class;
+
+    private ReactiveTokenContextHolder() {
+    }
+
+    /**
+     * 获取当前请求的认证上下文
+     */
+    public static Mono<TokenContext> getContext() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.getOrEmpty(KEY)));
+    }
+
+    /**
+     * 创建包含认证上下文的 Reactor Context
+     */
+    public static Context withContext(TokenContext tokenContext) {
+        return Context.of(KEY, tokenContext);
+    }
+}
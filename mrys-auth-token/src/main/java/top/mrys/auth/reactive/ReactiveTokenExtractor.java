@@ -0,0 +1,20 @@
+package top.mrys.auth.reactive;
+
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.token.Token;
+
+/**
+ * 响应式 token 提取器
+ *
+ * @author mrys
+ */
+public interface ReactiveTokenExtractor {
+
+    /**
+     * 从请求中提取 token
+     *
+     * @return token，没有时返回空的 Mono
+     */
+    Mono<Token> extract(ServerWebExchange exchange);
+}
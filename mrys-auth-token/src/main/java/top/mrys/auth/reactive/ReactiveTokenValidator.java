@@ -0,0 +1,31 @@
+package top.mrys.auth.reactive;
+
+import reactor.core.publisher.Mono;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+
+/**
+ * 响应式 token 验证器
+ * <p>
+ * 用来验证 token 的合法性，验证过程不能阻塞调用线程，阻塞的验证器请使用 {@link BlockingTokenValidatorAdapter} 包装
+ *
+ * @author mrys
+ */
+public interface ReactiveTokenValidator {
+
+    /**
+     * 是否支持该 token
+     */
+    default boolean support(Token token) {
+        return true;
+    }
+
+    /**
+     * 验证 token
+     * <p>
+     * 验证失败时以 {@link top.mrys.auth.exceptions.TokenException} 结束
+     *
+     * @return true 继续执行后续验证器，false 或空表示验证链到此结束
+     */
+    Mono<Boolean> validate(TokenContext ctx);
+}
@@ -0,0 +1,53 @@
+package top.mrys.auth.reactive;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.TokenContext;
+
+import java.util.List;
+
+/**
+ * 响应式 token 验证器链
+ * <p>
+ * 平铺执行：验证器按顺序依次订阅，
+ * 某个验证器返回 false 时不再订阅后续验证器。
+ *
+ * @author mrys
+ */
+public class ReactiveTokenValidatorChain {
+
+    /**
+     * 验证 token 不为空，对应 {@link top.mrys.auth.token.EmptyTokenValidator}
+     */
+    private static final ReactiveTokenValidator EMPTY_TOKEN_VALIDATOR = ctx -> ctx.getToken() == null
+            ? Mono.error(new TokenException(null, "token 不能为空 联系开发人员 是否配置错误"))
+            : Mono.just(Boolean.TRUE);
+
+    private final ReactiveTokenValidator[] validators;
+
+    private ReactiveTokenValidatorChain(ReactiveTokenValidator[] validators) {
+        this.validators = validators;
+    }
+
+    public static ReactiveTokenValidatorChain create(List<? extends ReactiveTokenValidator> validators) {
+        ReactiveTokenValidator[] array = new ReactiveTokenValidator[validators.size() + 1];
+        array[0] = EMPTY_TOKEN_VALIDATOR;
+        for (int i = 0; i < validators.size(); i++) {
+            array[i + 1] = validators.get(i);
+        }
+        return new ReactiveTokenValidatorChain(array);
+    }
+
+    /**
+     * 执行验证器链
+     */
+    public Mono<Void> validate(TokenContext ctx) {
+        return Flux.fromArray(validators)
+                .concatMap(validator -> validator.support(ctx.getToken())
+                        ? validator.validate(ctx).defaultIfEmpty(Boolean.FALSE)
+                        : Mono.just(Boolean.TRUE))
+                .takeUntil(proceed -> !proceed)
+                .then();
+    }
+}
@@ -0,0 +1,42 @@
+package top.mrys.auth.reactive;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+
+/**
+ * 简单的响应式 token 提取器
+ * 与 {@link top.mrys.auth.token.SimpleTokenExtractor} 相同，从 header、query、cookie 中提取 token
+ *
+ * @author mrys
+ */
+public class SimpleReactiveTokenExtractor implements ReactiveTokenExtractor {
+
+    private static final String[] HEADER_NAMES = {"Authorization", "X-Authorization", "X-Token", "token"};
+
+    @Override
+    public Mono<Token> extract(ServerWebExchange exchange) {
+        return Mono.justOrEmpty(extract(exchange.getRequest()));
+    }
+
+    private Token extract(ServerHttpRequest request) {
+        for (String headerName : HEADER_NAMES) {
+            String token = request.getHeaders().getFirst(headerName);
+            if (token != null && !token.isBlank()) {
+                return new SimpleToken(token, false, "header", headerName);
+            }
+        }
+        String token = request.getQueryParams().getFirst("token");
+        if (token != null && !token.isBlank()) {
+            return new SimpleToken(token, false, "query", "token");
+        }
+        HttpCookie cookie = request.getCookies().getFirst("token");
+        if (cookie != null && !cookie.getValue().isBlank()) {
+            return new SimpleToken(cookie.getValue(), false, "cookie", "token");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package top.mrys.auth.revocation;
+
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于内存的吊销列表
+ * <p>
+ * 适合单实例部署和测试。吊销记录可以带过期时间（通常为 token 的 exp），过期后 token 本身已失效，
+ * 可以通过 {@link #purgeExpired()} 清理，清理后同步方需要全量重建。
+ *
+ * @author mrys
+ */
+public class InMemoryRevocationSource implements RevocationSource {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Clock clock;
+
+    // 变更日志，log.get(i) 为版本 baseVersion + i + 1 新增的标识，受 lock 保护
+    private final List<String> log = new ArrayList<>();
+    private long baseVersion;
+
+    public InMemoryRevocationSource() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryRevocationSource(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * 吊销 token，永久有效
+     */
+    public void revoke(String tokenId) {
+        revoke(tokenId, null);
+    }
+
+    /**
+     * 吊销 token
+     *
+     * @param expiresAt 吊销记录的过期时间，为 null 时永久有效
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        Assert.hasText(tokenId, "tokenId 不能为空");
+        long deadline = expiresAt == null ? NEVER : expiresAt.toEpochMilli();
+        lock.lock();
+        try {
+            if (revoked.put(tokenId, deadline) == null) {
+                log.add(tokenId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清理过期的吊销记录
+     *
+     * @return 清理的数量
+     */
+    public int purgeExpired() {
+        long now = clock.millis();
+        lock.lock();
+        try {
+            int before = revoked.size();
+            revoked.values().removeIf(deadline -> deadline <= now);
+            int purged = before - revoked.size();
+            if (purged > 0) {
+                // 截断日志并推进版本，之前同步过的调用方都全量重建，丢掉过滤器中已清理的标识
+                baseVersion += log.size() + 1;
+                log.clear();
+            }
+            return purged;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 当前的吊销记录数量
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Long deadline = revoked.get(tokenId);
+        return deadline != null && deadline > clock.millis();
+    }
+
+    @Override
+    public RevocationChanges getChanges(long sinceVersion) {
+        lock.lock();
+        try {
+            long version = baseVersion + log.size();
+            if (sinceVersion < baseVersion || sinceVersion > version) {
+                return RevocationChanges.full(version, new ArrayList<>(revoked.keySet()));
+            }
+            return RevocationChanges.incremental(version,
+                    new ArrayList<>(log.subList((int) (sinceVersion - baseVersion), log.size())));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
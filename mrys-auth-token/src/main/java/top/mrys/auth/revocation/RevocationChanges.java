@@ -0,0 +1,54 @@
+package top.mrys.auth.revocation;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 吊销列表的变化
+ *
+ * @author mrys
+ */
+public final class RevocationChanges {
+
+    private final long version;
+    private final Collection<String> revokedIds;
+    private final boolean full;
+
+    private RevocationChanges(long version, Collection<String> revokedIds, boolean full) {
+        this.version = version;
+        this.revokedIds = revokedIds;
+        this.full = full;
+    }
+
+    /**
+     * 增量变化
+     *
+     * @param version    变化后的版本
+     * @param revokedIds 新吊销的 token 标识
+     */
+    public static RevocationChanges incremental(long version, Collection<String> revokedIds) {
+        return new RevocationChanges(version, revokedIds == null ? List.of() : revokedIds, false);
+    }
+
+    /**
+     * 全量，调用方丢弃本地数据后重建
+     *
+     * @param version    当前版本
+     * @param revokedIds 当前所有吊销的 token 标识
+     */
+    public static RevocationChanges full(long version, Collection<String> revokedIds) {
+        return new RevocationChanges(version, revokedIds == null ? List.of() : revokedIds, true);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Collection<String> getRevokedIds() {
+        return revokedIds;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+}
@@ -0,0 +1,197 @@
+package top.mrys.auth.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import top.mrys.auth.cache.BloomFilter;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.jwt.JwtToken;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenDigest;
+import top.mrys.auth.token.TokenValidator;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 吊销检查验证器
+ * <p>
+ * 本地维护一个吊销 token 标识的布隆过滤器，绝大多数请求只做一次内存探测即可通过，
+ * 过滤器命中时才调用 {@link RevocationSource#isRevoked(String)} 精确检查。
+ * 过滤器按 refreshInterval 从 {@link RevocationSource} 增量同步，同步只由一个线程执行，失败时保留原来的过滤器；
+ * 因此吊销最多延迟一个同步间隔后生效。首次同步失败时每次请求都直接精确检查。
+ * <p>
+ * 过滤器的容量在重建时确定，增量写入使写入总数超过容量时误判率会迅速上升，所有请求都会落到精确检查，
+ * 所以此时改为拉取全量并按实际数量扩容重建。
+ * <p>
+ * token 标识默认为 JWT 的 jti 声明，没有时为 token 的摘要（{@link TokenDigest}），吊销时应使用相同的标识，
+ * 可以通过 {@link #defaultTokenId(Token)} 计算。需要读取 jti 时应加在 {@link top.mrys.auth.jwt.JwtTokenValidator} 之后。
+ * <pre>
+ * wrapper.addTokenValidators(jwtTokenValidator, new RevocationCheckingValidator(revocationSource));
+ * </pre>
+ *
+ * @author mrys
+ */
+@Slf4j
+public class RevocationCheckingValidator implements TokenValidator {
+
+    private final RevocationSource source;
+    private final int expectedInsertions;
+    private final double fpp;
+    private final long refreshIntervalNanos;
+
+    private Function<Token, String> tokenIdResolver = RevocationCheckingValidator::defaultTokenId;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile long nextRefresh;
+    private volatile BloomFilter filter;
+    // 以下字段受 refreshLock 保护
+    private long version = -1;
+    /**
+     * 当前过滤器的设计容量
+     */
+    private int capacity;
+    /**
+     * 当前过滤器已写入的标识数量
+     */
+    private int insertions;
+
+    private final LongAdder checkCount = new LongAdder();
+    private final LongAdder exactCheckCount = new LongAdder();
+
+    /**
+     * 使用默认配置：预计 100000 个吊销标识，误判率 1%，每 5 秒同步一次
+     */
+    public RevocationCheckingValidator(RevocationSource source) {
+        this(source, 100_000, 0.01, Duration.ofSeconds(5));
+    }
+
+    /**
+     * @param source             吊销列表来源
+     * @param expectedInsertions 预计的吊销标识数量，实际数量更多时按实际数量扩容
+     * @param fpp                过滤器的误判率
+     * @param refreshInterval    同步间隔
+     */
+    public RevocationCheckingValidator(RevocationSource source, int expectedInsertions, double fpp,
+                                       Duration refreshInterval) {
+        Assert.notNull(source, "source 不能为空");
+        this.source = source;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        refresh();
+    }
+
+    /**
+     * 设置 token 标识的计算方式
+     */
+    public RevocationCheckingValidator setTokenIdResolver(Function<Token, String> tokenIdResolver) {
+        this.tokenIdResolver = tokenIdResolver;
+        return this;
+    }
+
+    /**
+     * 默认的 token 标识：JWT 的 jti 声明，没有时为 token 的摘要
+     */
+    public static String defaultTokenId(Token token) {
+        if (token instanceof JwtToken jwtToken && jwtToken.getClaim("jti") != null) {
+            return jwtToken.getClaim("jti").toString();
+        }
+        return TokenDigest.of(token);
+    }
+
+    @Override
+    public void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        String tokenId = tokenIdResolver.apply(ctx.getToken());
+        if (tokenId != null && isRevoked(tokenId)) {
+            throw new TokenException(ctx.getToken(), "token 已被吊销");
+        }
+        chain.validate(ctx);
+    }
+
+    /**
+     * token 是否已被吊销
+     */
+    public boolean isRevoked(String tokenId) {
+        checkCount.increment();
+        if (System.nanoTime() - nextRefresh >= 0 && refreshLock.tryLock()) {
+            // 已有线程在同步时不等待，继续使用当前的过滤器
+            try {
+                doRefresh();
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        exactCheckCount.increment();
+        return source.isRevoked(tokenId);
+    }
+
+    /**
+     * 立即从吊销列表来源同步
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 同步过滤器，需持有 refreshLock
+     */
+    private void doRefresh() {
+        try {
+            BloomFilter current = filter;
+            RevocationChanges changes = source.getChanges(current == null ? -1 : version);
+            boolean rebuild = changes.isFull() || current == null;
+            if (!rebuild && insertions + changes.getRevokedIds().size() > capacity) {
+                // 增量写入会超过过滤器的设计容量，拉取全量后扩容重建
+                log.debug("吊销列表过滤器已写入 {} 个标识，超过容量 {}，全量重建", insertions, capacity);
+                changes = source.getChanges(-1);
+                rebuild = true;
+            }
+            if (rebuild) {
+                int size = changes.getRevokedIds().size();
+                int rebuiltCapacity = Math.max(expectedInsertions, size * 2);
+                BloomFilter rebuilt = BloomFilter.create(rebuiltCapacity, fpp);
+                changes.getRevokedIds().forEach(rebuilt::put);
+                filter = rebuilt;
+                capacity = rebuiltCapacity;
+                insertions = size;
+                log.debug("吊销列表过滤器已重建，共 {} 个标识", size);
+            } else {
+                // 在当前过滤器上增量置位，查询线程可以同时读取
+                changes.getRevokedIds().forEach(current::put);
+                insertions += changes.getRevokedIds().size();
+            }
+            version = changes.getVersion();
+        } catch (RuntimeException e) {
+            log.warn("同步吊销列表失败，继续使用原来的过滤器", e);
+        } finally {
+            nextRefresh = System.nanoTime() + refreshIntervalNanos;
+        }
+    }
+
+    /**
+     * 检查次数
+     */
+    public long getCheckCount() {
+        return checkCount.sum();
+    }
+
+    /**
+     * 过滤器命中后精确检查的次数
+     */
+    public long getExactCheckCount() {
+        return exactCheckCount.sum();
+    }
+}
@@ -0,0 +1,28 @@
+package top.mrys.auth.revocation;
+
+/**
+ * 吊销列表来源
+ * <p>
+ * 实现可以基于数据库、Redis 等存储。{@link RevocationCheckingValidator} 定期通过 {@link #getChanges(long)}
+ * 增量同步吊销的 token 标识到本地布隆过滤器，只有过滤器命中时才调用 {@link #isRevoked(String)} 精确检查。
+ *
+ * @author mrys
+ * @see InMemoryRevocationSource
+ */
+public interface RevocationSource {
+
+    /**
+     * token 是否已被吊销
+     *
+     * @param tokenId token 标识
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * 获取指定版本之后的变化
+     * 无法提供增量（如版本过旧、日志已被清理）时返回全量
+     *
+     * @param sinceVersion 调用方已同步到的版本，首次同步为 -1
+     */
+    RevocationChanges getChanges(long sinceVersion);
+}
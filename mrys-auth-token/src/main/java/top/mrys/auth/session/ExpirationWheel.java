@@ -0,0 +1,77 @@
+package top.mrys.auth.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 时间轮，用于批量清理过期条目
+ * <p>
+ * 条目按过期时间放入对应的槽，添加是无锁的；推进时只处理到期的槽，
+ * 过期时间超过一圈的条目留待之后的轮次处理。推进只能由一个线程执行。
+ * 条目不支持取消，提前移除的条目在过期时间到达后由处理方忽略。
+ *
+ * @param <T> 条目类型
+ * @author mrys
+ */
+final class ExpirationWheel<T> {
+
+    private final Queue<T>[] slots;
+    private final int mask;
+    private final long tickMillis;
+    private final ToLongFunction<T> deadlineOf;
+
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    ExpirationWheel(int slotCount, long tickMillis, long now, ToLongFunction<T> deadlineOf) {
+        int size = Integer.highestOneBit(Math.max(2, slotCount - 1)) << 1;
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.tickMillis = tickMillis;
+        this.deadlineOf = deadlineOf;
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * 添加条目
+     */
+    void schedule(T item) {
+        // 已经推进过的槽要等一圈后才会再处理，放到下一个槽
+        long tick = Math.max(deadlineOf.applyAsLong(item) / tickMillis, currentTick + 1);
+        slots[(int) (tick & mask)].add(item);
+    }
+
+    /**
+     * 推进到 now，处理所有到期的槽
+     *
+     * @param expired 过期条目的处理
+     */
+    void advance(long now, Consumer<T> expired) {
+        long target = now / tickMillis;
+        // 长时间未推进时只需处理一圈，未到期的条目会重新放回
+        long start = Math.max(currentTick, target - mask);
+        List<T> drained = new ArrayList<>();
+        for (long tick = start; tick <= target; tick++) {
+            Queue<T> slot = slots[(int) (tick & mask)];
+            for (T item; (item = slot.poll()) != null; ) {
+                drained.add(item);
+            }
+            currentTick = tick;
+            for (T item : drained) {
+                if (deadlineOf.applyAsLong(item) <= now) {
+                    expired.accept(item);
+                } else {
+                    schedule(item);
+                }
+            }
+            drained.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package top.mrys.auth.session;
+
+import top.mrys.auth.token.UserInfo;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于内存的刷新令牌存储，适合单实例部署和测试
+ *
+ * @author mrys
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final ConcurrentMap<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryRefreshTokenStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryRefreshTokenStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(String key, UserInfo userInfo, Instant expiresAt) {
+        tokens.put(key, new Entry(userInfo, expiresAt.toEpochMilli()));
+    }
+
+    @Override
+    public UserInfo consume(String key) {
+        Entry entry = tokens.remove(key);
+        return entry == null || entry.expiresAt <= clock.millis() ? null : entry.userInfo;
+    }
+
+    @Override
+    public void remove(String key) {
+        tokens.remove(key);
+    }
+
+    /**
+     * 清理过期的刷新令牌
+     *
+     * @return 清理的数量
+     */
+    public int purgeExpired() {
+        long now = clock.millis();
+        int before = tokens.size();
+        tokens.values().removeIf(entry -> entry.expiresAt <= now);
+        return before - tokens.size();
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    private static final class Entry {
+        private final UserInfo userInfo;
+        private final long expiresAt;
+
+        private Entry(UserInfo userInfo, long expiresAt) {
+            this.userInfo = userInfo;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
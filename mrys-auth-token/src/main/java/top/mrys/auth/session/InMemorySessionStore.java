@@ -0,0 +1,223 @@
+package top.mrys.auth.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import top.mrys.auth.token.UserInfo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于内存的会话存储
+ * <p>
+ * 会话和用户索引都保存在 {@link ConcurrentHashMap} 中，读取无锁，写入只锁定单个键所在的桶，没有全局锁，
+ * 可以容纳数百万会话。每个用户的会话索引按创建时间排序，用于限制同时在线的会话数。
+ * <p>
+ * 注销所有设备只需让用户索引失效，时间复杂度为 O(1)：会话持有所属索引的引用，索引失效后这些会话随之失效，
+ * 之后在读取时或过期时从存储中移除。过期的会话由时间轮在后台批量清理，读取时也会检查过期时间。
+ * <p>
+ * 作为 Spring Bean 时容器关闭会自动调用 {@link #close()} 停止后台清理线程。
+ *
+ * @author mrys
+ */
+@Slf4j
+public class InMemorySessionStore implements SessionStore, AutoCloseable {
+
+    private final int maxSessionsPerUser;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, UserSessions> users = new ConcurrentHashMap<>();
+    private final ExpirationWheel<Session> wheel;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 不限制每个用户的会话数
+     */
+    public InMemorySessionStore() {
+        this(0);
+    }
+
+    /**
+     * @param maxSessionsPerUser 每个用户最多同时存在的会话数，0 表示不限制
+     */
+    public InMemorySessionStore(int maxSessionsPerUser) {
+        this(maxSessionsPerUser, Duration.ofSeconds(1), Clock.systemUTC());
+    }
+
+    /**
+     * @param maxSessionsPerUser 每个用户最多同时存在的会话数，0 表示不限制
+     * @param tick               时间轮的精度，也是后台清理的间隔
+     * @param clock              时钟
+     */
+    public InMemorySessionStore(int maxSessionsPerUser, Duration tick, Clock clock) {
+        Assert.isTrue(maxSessionsPerUser >= 0, "maxSessionsPerUser 不能小于 0");
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.clock = clock;
+        long tickMillis = Math.max(1L, tick.toMillis());
+        this.wheel = new ExpirationWheel<>(512, tickMillis, clock.millis(), Session::getExpiresAt);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeExpired, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Session create(String sessionId, UserInfo userInfo, Duration ttl) {
+        Assert.hasText(sessionId, "sessionId 不能为空");
+        Assert.notNull(userInfo, "userInfo 不能为空");
+        Assert.hasText(userInfo.getUserId(), "userId 不能为空");
+        Assert.isTrue(ttl != null && !ttl.isNegative() && !ttl.isZero(), "ttl 必须大于 0");
+        long now = clock.millis();
+        Session[] created = new Session[1];
+        List<Session> evicted = new ArrayList<>(0);
+        users.compute(userInfo.getUserId(), (userId, owner) -> {
+            if (owner == null) {
+                owner = new UserSessions();
+            }
+            // 同一标识的旧会话将被替换，先从索引中移除，不占用会话数，也不会因此挤掉其他会话
+            Session existing = sessions.get(sessionId);
+            if (existing != null && existing.owner == owner) {
+                owner.sessions.remove(existing);
+            }
+            Session session = new Session(sessionId, userInfo, now, now + ttl.toMillis(), owner);
+            owner.sessions.addLast(session);
+            while (maxSessionsPerUser > 0 && owner.sessions.size() > maxSessionsPerUser) {
+                evicted.add(owner.sessions.pollFirst());
+            }
+            created[0] = session;
+            return owner;
+        });
+        Session session = created[0];
+        Session replaced = sessions.put(sessionId, session);
+        if (replaced != null && replaced.owner != null) {
+            detach(replaced);
+        }
+        for (Session old : evicted) {
+            sessions.remove(old.getId(), old);
+            log.debug("用户 {} 的会话数超过上限，移除最早的会话", old.getUserId());
+        }
+        wheel.schedule(session);
+        return session;
+    }
+
+    @Override
+    public Session get(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(clock.millis())) {
+            if (sessions.remove(sessionId, session)) {
+                detach(session);
+            }
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public boolean remove(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        detach(session);
+        return !session.isExpired(clock.millis());
+    }
+
+    @Override
+    public int removeAll(String userId) {
+        int[] removed = new int[1];
+        users.computeIfPresent(userId, (key, owner) -> {
+            owner.invalidated = true;
+            removed[0] = owner.sessions.size();
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public List<Session> getSessions(String userId) {
+        long now = clock.millis();
+        List<Session> result = new ArrayList<>();
+        users.computeIfPresent(userId, (key, owner) -> {
+            for (Session session : owner.sessions) {
+                if (!session.isExpired(now)) {
+                    result.add(session);
+                }
+            }
+            return owner;
+        });
+        return result;
+    }
+
+    /**
+     * 当前的会话数，包括尚未清理的失效会话
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 当前有会话的用户数
+     */
+    public int getUserCount() {
+        return users.size();
+    }
+
+    /**
+     * 清理过期的会话，后台线程按时间轮的精度定期调用
+     */
+    public void purgeExpired() {
+        try {
+            wheel.advance(clock.millis(), session -> {
+                if (sessions.remove(session.getId(), session)) {
+                    detach(session);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("清理过期会话失败", e);
+        }
+    }
+
+    /**
+     * 从用户索引中移除会话，索引为空时移除索引
+     */
+    private void detach(Session session) {
+        users.computeIfPresent(session.getUserId(), (userId, owner) -> {
+            if (owner != session.owner) {
+                return owner;
+            }
+            owner.sessions.remove(session);
+            return owner.sessions.isEmpty() ? null : owner;
+        });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 用户的会话索引，在 users 对应键的 compute 中访问
+     */
+    static final class UserSessions {
+        private final ArrayDeque<Session> sessions = new ArrayDeque<>(2);
+
+        /**
+         * 用户注销所有设备后置为 true，之前创建的会话全部失效
+         */
+        volatile boolean invalidated;
+    }
+}
@@ -0,0 +1,51 @@
+package top.mrys.auth.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于内存的最后访问时间存储，适合单实例部署和测试
+ *
+ * @author mrys
+ */
+public class InMemoryTokenAccessStore implements TokenAccessStore {
+
+    private final ConcurrentMap<String, Long> lastAccess = new ConcurrentHashMap<>();
+
+    @Override
+    public Long getLastAccess(String tokenId) {
+        return lastAccess.get(tokenId);
+    }
+
+    @Override
+    public void saveLastAccess(Map<String, Long> lastAccess) {
+        lastAccess.forEach((tokenId, timestamp) -> this.lastAccess.merge(tokenId, timestamp, Math::max));
+    }
+
+    /**
+     * 删除记录，如 token 本身过期后
+     */
+    public void remove(String tokenId) {
+        lastAccess.remove(tokenId);
+    }
+
+    /**
+     * 删除最后访问时间早于 timestamp 的记录
+     * <p>
+     * 删除后的 token 没有访问记录，会被 {@link SlidingExpirationTokenValidator} 拒绝。
+     * 注销的墓碑（{@link LastAccessTracker#ENDED}）不会被删除，需要在 token 本身过期后调用 {@link #remove(String)}，
+     * 否则其他实例延迟写入的访问时间会让注销失效。
+     *
+     * @return 删除的数量
+     */
+    public int purgeOlderThan(long timestamp) {
+        int before = lastAccess.size();
+        lastAccess.values().removeIf(value -> value < timestamp);
+        return before - lastAccess.size();
+    }
+
+    public int size() {
+        return lastAccess.size();
+    }
+}
@@ -0,0 +1,217 @@
+package top.mrys.auth.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import top.mrys.auth.cache.SegmentedLruCache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * token 最后访问时间跟踪器（写后缓冲）
+ * <p>
+ * 每次请求的访问时间只记录在内存中，同一个 token 在一个刷新周期内的多次访问合并为一条，
+ * 后台线程按 flushInterval 分批写入 {@link TokenAccessStore}，存储的写入次数与请求数无关，只与活跃 token 数有关。
+ * 待写入的记录超过 maxPending 时提前刷新；写入失败的记录保留到下次刷新重试。
+ * <p>
+ * 读取时依次查找待写入的记录、最近写入或读取过的记录，都没有时才查询存储。
+ * 本地记录只保留一个刷新周期，多实例部署时其他实例的访问和注销最多延迟两个刷新周期可见。
+ * <p>
+ * 登录或签发 token 时应调用 {@link #start(String, long)} 写入初始访问时间，注销时调用 {@link #forget(String)}
+ * 写入 {@link #ENDED} 墓碑。这两个操作直接写入存储，其他实例立即可以查询到。
+ * <p>
+ * 关闭时会写入剩余的记录，作为 Spring Bean 时容器关闭会自动调用 {@link #close()}。
+ *
+ * @author mrys
+ */
+@Slf4j
+public class LastAccessTracker implements AutoCloseable {
+
+    /**
+     * 已注销 token 的墓碑，大于任何访问时间，存储按时间取较大值合并时不会被之后的访问覆盖
+     */
+    public static final long ENDED = Long.MAX_VALUE;
+
+    private final TokenAccessStore store;
+    private final int maxBatchSize;
+    private final int maxPending;
+
+    private final ConcurrentMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final SegmentedLruCache<String, Long> known;
+    private final Duration knownTtl;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder recordCount = new LongAdder();
+    private final LongAdder writeCount = new LongAdder();
+
+    /**
+     * 使用默认配置：每 5 秒刷新，每批最多 500 条，最多 100000 条待写入记录，本地保留最近 100000 个 token 的访问时间
+     */
+    public LastAccessTracker(TokenAccessStore store) {
+        this(store, Duration.ofSeconds(5), 500, 100_000, 100_000);
+    }
+
+    /**
+     * @param store         存储
+     * @param flushInterval 刷新间隔
+     * @param maxBatchSize  每批写入的最大记录数
+     * @param maxPending    待写入记录数超过该值时提前刷新
+     * @param maxKnown      本地保留的已写入记录数
+     */
+    public LastAccessTracker(TokenAccessStore store, Duration flushInterval, int maxBatchSize, int maxPending,
+                             int maxKnown) {
+        Assert.notNull(store, "store 不能为空");
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize 必须大于 0");
+        this.store = store;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPending = maxPending;
+        this.known = new SegmentedLruCache<>(maxKnown);
+        this.knownTtl = flushInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-last-access-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录访问
+     *
+     * @param tokenId   token 标识
+     * @param timestamp 访问时间（毫秒时间戳）
+     */
+    public void record(String tokenId, long timestamp) {
+        recordCount.increment();
+        pending.merge(tokenId, timestamp, Math::max);
+        if (pending.size() > maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                earlyFlushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * 登录或签发 token 时写入初始访问时间，直接写入存储
+     * <p>
+     * 写入失败时抛出异常，记录保留在待写入记录中，下次刷新时重试。
+     *
+     * @param tokenId   token 标识
+     * @param timestamp 签发时间（毫秒时间戳）
+     */
+    public void start(String tokenId, long timestamp) {
+        pending.merge(tokenId, timestamp, Math::max);
+        write(Map.of(tokenId, timestamp));
+    }
+
+    /**
+     * 查询最后访问时间
+     *
+     * @return 最后访问时间（毫秒时间戳），已注销时返回 {@link #ENDED}，没有记录时返回 null
+     */
+    public Long getLastAccess(String tokenId) {
+        Long timestamp = pending.get(tokenId);
+        if (timestamp != null) {
+            return timestamp;
+        }
+        timestamp = known.get(tokenId);
+        if (timestamp != null) {
+            return timestamp;
+        }
+        timestamp = store.getLastAccess(tokenId);
+        if (timestamp != null) {
+            known.put(tokenId, timestamp, knownTtl);
+        }
+        return timestamp;
+    }
+
+    /**
+     * 注销 token，写入 {@link #ENDED} 墓碑，直接写入存储，之后的访问不会再延长有效期
+     * <p>
+     * 写入失败时抛出异常，墓碑保留在待写入记录中，下次刷新时重试。
+     */
+    public void forget(String tokenId) {
+        pending.put(tokenId, ENDED);
+        write(Map.of(tokenId, ENDED));
+    }
+
+    /**
+     * 立即写入所有待写入的记录
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<String, Long> batch = new HashMap<>();
+            for (Map.Entry<String, Long> entry : pending.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() >= maxBatchSize) {
+                    write(batch);
+                    batch = new HashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Map<String, Long> batch) {
+        store.saveLastAccess(batch);
+        writeCount.increment();
+        batch.forEach((tokenId, timestamp) -> {
+            // 先放入本地记录再移除待写入记录，读取不会出现空档；写入期间又有新的访问时保留待写入记录
+            known.put(tokenId, timestamp, knownTtl);
+            pending.remove(tokenId, timestamp);
+        });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("写入 token 最后访问时间失败，{} 条记录将在下次刷新时重试", pending.size(), e);
+        }
+    }
+
+    /**
+     * 待写入的记录数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 记录的访问次数
+     */
+    public long getRecordCount() {
+        return recordCount.sum();
+    }
+
+    /**
+     * 批量写入存储的次数
+     */
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        flushQuietly();
+    }
+}
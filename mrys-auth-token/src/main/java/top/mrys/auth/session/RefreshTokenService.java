@@ -0,0 +1,115 @@
+package top.mrys.auth.session;
+
+import org.springframework.util.Assert;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.TokenDigest;
+import top.mrys.auth.token.UserInfo;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * 刷新令牌服务
+ * <p>
+ * 刷新令牌是随机生成的不透明字符串，只保存其摘要。每个刷新令牌只能使用一次，
+ * 刷新时签发新的刷新令牌（轮换），被盗用的刷新令牌与合法用户的刷新令牌只有一方能成功。
+ * 访问令牌的签发由应用完成：
+ * <pre>
+ * RefreshTokenService.Refreshed refreshed = refreshTokenService.refresh(refreshToken);
+ * String accessToken = tokenIssuer.issue(refreshed.getUserInfo());
+ * return new LoginResult(accessToken, refreshed.getRefreshToken());
+ * </pre>
+ *
+ * @author mrys
+ */
+public class RefreshTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenStore store;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * @param store 刷新令牌存储
+     * @param ttl   刷新令牌的有效期
+     */
+    public RefreshTokenService(RefreshTokenStore store, Duration ttl) {
+        Assert.notNull(store, "store 不能为空");
+        Assert.isTrue(ttl != null && !ttl.isNegative() && !ttl.isZero(), "ttl 必须大于 0");
+        this.store = store;
+        this.ttl = ttl;
+    }
+
+    /**
+     * 设置时钟
+     */
+    public RefreshTokenService setClock(Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    /**
+     * 签发刷新令牌
+     */
+    public String issue(UserInfo userInfo) {
+        Assert.notNull(userInfo, "userInfo 不能为空");
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = ENCODER.encodeToString(bytes);
+        store.save(TokenDigest.of(refreshToken), userInfo, clock.instant().plus(ttl));
+        return refreshToken;
+    }
+
+    /**
+     * 使用刷新令牌，原令牌失效并签发新的刷新令牌
+     *
+     * @throws TokenException 刷新令牌无效、已使用或已过期
+     */
+    public Refreshed refresh(String refreshToken) throws TokenException {
+        UserInfo userInfo = refreshToken == null ? null : store.consume(TokenDigest.of(refreshToken));
+        if (userInfo == null) {
+            throw new TokenException(null, "刷新令牌无效或已过期");
+        }
+        return new Refreshed(userInfo, issue(userInfo));
+    }
+
+    /**
+     * 撤销刷新令牌，如用户注销时
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken != null) {
+            store.remove(TokenDigest.of(refreshToken));
+        }
+    }
+
+    /**
+     * 刷新结果
+     */
+    public static final class Refreshed {
+        private final UserInfo userInfo;
+        private final String refreshToken;
+
+        private Refreshed(UserInfo userInfo, String refreshToken) {
+            this.userInfo = userInfo;
+            this.refreshToken = refreshToken;
+        }
+
+        /**
+         * 签发刷新令牌时的用户信息，用于签发新的访问令牌
+         */
+        public UserInfo getUserInfo() {
+            return userInfo;
+        }
+
+        /**
+         * 新的刷新令牌
+         */
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package top.mrys.auth.session;
+
+import top.mrys.auth.token.UserInfo;
+
+import java.time.Instant;
+
+/**
+ * 刷新令牌存储
+ * <p>
+ * 键为刷新令牌的摘要，存储中不保存令牌原文。
+ *
+ * @author mrys
+ * @see InMemoryRefreshTokenStore
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * 保存刷新令牌
+     *
+     * @param key       刷新令牌的摘要
+     * @param userInfo  签发时的用户信息
+     * @param expiresAt 过期时间
+     */
+    void save(String key, UserInfo userInfo, Instant expiresAt);
+
+    /**
+     * 取出并删除刷新令牌，必须是原子操作，同一个刷新令牌只能被使用一次
+     *
+     * @param key 刷新令牌的摘要
+     * @return 用户信息，不存在或已过期时返回 null
+     */
+    UserInfo consume(String key);
+
+    /**
+     * 删除刷新令牌
+     */
+    void remove(String key);
+}
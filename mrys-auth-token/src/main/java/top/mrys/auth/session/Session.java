@@ -0,0 +1,75 @@
+package top.mrys.auth.session;
+
+import top.mrys.auth.token.UserInfo;
+
+/**
+ * 会话
+ *
+ * @author mrys
+ * @see SessionStore
+ */
+public class Session {
+
+    private final String id;
+    private final UserInfo userInfo;
+    private final long createdAt;
+    private final long expiresAt;
+
+    /**
+     * 所属用户的会话索引，用户注销所有设备后该索引失效，会话随之失效
+     */
+    final InMemorySessionStore.UserSessions owner;
+
+    public Session(String id, UserInfo userInfo, long createdAt, long expiresAt) {
+        this(id, userInfo, createdAt, expiresAt, null);
+    }
+
+    Session(String id, UserInfo userInfo, long createdAt, long expiresAt, InMemorySessionStore.UserSessions owner) {
+        this.id = id;
+        this.userInfo = userInfo;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.owner = owner;
+    }
+
+    /**
+     * 会话标识
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userInfo.getUserId();
+    }
+
+    public UserInfo getUserInfo() {
+        return userInfo;
+    }
+
+    /**
+     * 创建时间（毫秒时间戳）
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 在 now 时是否已失效
+     */
+    public boolean isExpired(long now) {
+        return now >= expiresAt || (owner != null && owner.invalidated);
+    }
+
+    @Override
+    public String toString() {
+        return "Session{id=" + id + ", userId=" + getUserId() + ", expiresAt=" + expiresAt + '}';
+    }
+}
@@ -0,0 +1,54 @@
+package top.mrys.auth.session;
+
+import top.mrys.auth.token.UserInfo;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 会话存储
+ * <p>
+ * 会话标识通常为 token 的摘要（{@link SessionTokenValidator#defaultSessionId(String)}），登录时创建会话，
+ * 之后由 {@link SessionTokenValidator} 根据会话加载用户信息。
+ *
+ * @author mrys
+ * @see InMemorySessionStore
+ */
+public interface SessionStore {
+
+    /**
+     * 创建会话
+     * 用户的会话数超过上限时，最早创建的会话被移除
+     *
+     * @param sessionId 会话标识
+     * @param userInfo  用户信息，userId 不能为空
+     * @param ttl       有效期
+     */
+    Session create(String sessionId, UserInfo userInfo, Duration ttl);
+
+    /**
+     * 获取会话
+     *
+     * @return 会话，不存在或已失效时返回 null
+     */
+    Session get(String sessionId);
+
+    /**
+     * 移除会话，如用户注销时
+     *
+     * @return 会话是否存在
+     */
+    boolean remove(String sessionId);
+
+    /**
+     * 移除用户的所有会话，如用户在所有设备上注销、修改密码时
+     *
+     * @return 移除的会话数
+     */
+    int removeAll(String userId);
+
+    /**
+     * 获取用户的所有有效会话，按创建时间排序
+     */
+    List<Session> getSessions(String userId);
+}
@@ -0,0 +1,81 @@
+package top.mrys.auth.session;
+
+import org.springframework.util.Assert;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenDigest;
+import top.mrys.auth.token.TokenValidator;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.util.function.Function;
+
+/**
+ * 会话验证器
+ * <p>
+ * 根据 token 查找 {@link SessionStore} 中的会话，会话存在且有效时 token 验证通过，用户信息取自会话。
+ * 会话标识默认为 token 的摘要（见 {@link #defaultSessionId(Token)}），计算前会去掉 {@code Bearer } 前缀，
+ * 与 {@code strip-bearer-prefix} 配置无关。登录时应使用相同的标识创建会话：
+ * <pre>
+ * String token = ...;
+ * sessionStore.create(SessionTokenValidator.defaultSessionId(token), userInfo, Duration.ofHours(2));
+ *
+ * wrapper.addTokenValidators(new SessionTokenValidator(sessionStore));
+ * </pre>
+ *
+ * @author mrys
+ */
+public class SessionTokenValidator implements TokenValidator {
+
+    private final SessionStore sessionStore;
+    private Function<Token, String> sessionIdResolver = SessionTokenValidator::defaultSessionId;
+
+    public SessionTokenValidator(SessionStore sessionStore) {
+        Assert.notNull(sessionStore, "sessionStore 不能为空");
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * 默认的会话标识：去掉 {@code Bearer } 前缀后的 token 摘要
+     *
+     * @return 会话标识，token 没有可用的原文（如账号密码 token）时返回 null
+     */
+    public static String defaultSessionId(Token token) {
+        if (token instanceof SimpleToken simpleToken && simpleToken.getToken() != null) {
+            return defaultSessionId(simpleToken.getToken());
+        }
+        return null;
+    }
+
+    /**
+     * 根据 token 原文计算默认的会话标识，登录创建会话时使用
+     */
+    public static String defaultSessionId(String token) {
+        String value = token;
+        if (value.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            value = value.substring(7);
+        }
+        return TokenDigest.of(value.trim());
+    }
+
+    /**
+     * 设置会话标识的计算方式，默认为 {@link #defaultSessionId(Token)}
+     */
+    public SessionTokenValidator setSessionIdResolver(Function<Token, String> sessionIdResolver) {
+        this.sessionIdResolver = sessionIdResolver;
+        return this;
+    }
+
+    @Override
+    public void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        String sessionId = sessionIdResolver.apply(ctx.getToken());
+        Session session = sessionId == null ? null : sessionStore.get(sessionId);
+        if (session == null) {
+            throw new TokenException(ctx.getToken(), "会话不存在或已过期");
+        }
+        ctx.getToken().setValid(true);
+        ctx.setUserInfo(session.getUserInfo());
+        chain.validate(ctx);
+    }
+}
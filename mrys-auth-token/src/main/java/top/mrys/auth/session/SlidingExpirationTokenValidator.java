@@ -0,0 +1,91 @@
+package top.mrys.auth.session;
+
+import org.springframework.util.Assert;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.revocation.RevocationCheckingValidator;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidator;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 滑动过期验证器
+ * <p>
+ * token 超过 idleTimeout 没有被使用则视为过期，每次使用都会延长有效期。
+ * 访问时间通过 {@link LastAccessTracker} 批量写入存储，不会每个请求写一次。
+ * 没有访问记录的 token 视为已过期：签发 token 时需要调用 {@link #start(Token)} 写入初始访问时间，
+ * 访问记录被清理或存储丢失后 token 不会复活。注销时调用 {@link LastAccessTracker#forget(String)}。
+ * 应加在签名、用户信息等验证器之后，未通过验证的 token 不会延长有效期。
+ * <pre>
+ * SlidingExpirationTokenValidator sliding = new SlidingExpirationTokenValidator(lastAccessTracker, Duration.ofMinutes(30));
+ * wrapper.addTokenValidators(jwtTokenValidator, sliding);
+ * // 登录成功签发 token 后
+ * sliding.start(token);
+ * </pre>
+ *
+ * @author mrys
+ */
+public class SlidingExpirationTokenValidator implements TokenValidator {
+
+    private final LastAccessTracker tracker;
+    private final long idleTimeoutMillis;
+
+    private Function<Token, String> tokenIdResolver = RevocationCheckingValidator::defaultTokenId;
+    private Clock clock = Clock.systemUTC();
+
+    public SlidingExpirationTokenValidator(LastAccessTracker tracker, Duration idleTimeout) {
+        Assert.notNull(tracker, "tracker 不能为空");
+        Assert.isTrue(idleTimeout != null && !idleTimeout.isNegative() && !idleTimeout.isZero(), "idleTimeout 必须大于 0");
+        this.tracker = tracker;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    /**
+     * 设置 token 标识的计算方式，默认与 {@link RevocationCheckingValidator#defaultTokenId(Token)} 相同
+     */
+    public SlidingExpirationTokenValidator setTokenIdResolver(Function<Token, String> tokenIdResolver) {
+        this.tokenIdResolver = tokenIdResolver;
+        return this;
+    }
+
+    /**
+     * 设置时钟
+     */
+    public SlidingExpirationTokenValidator setClock(Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    /**
+     * 签发 token 后调用，以当前时间作为初始访问时间
+     */
+    public void start(Token token) {
+        String tokenId = tokenIdResolver.apply(token);
+        Assert.notNull(tokenId, "无法计算 token 标识");
+        tracker.start(tokenId, clock.millis());
+    }
+
+    @Override
+    public void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        String tokenId = tokenIdResolver.apply(ctx.getToken());
+        if (tokenId != null) {
+            long now = clock.millis();
+            Long lastAccess = tracker.getLastAccess(tokenId);
+            if (lastAccess == null) {
+                throw new TokenException(ctx.getToken(), "token 没有访问记录，已过期");
+            }
+            if (lastAccess == LastAccessTracker.ENDED) {
+                throw new TokenException(ctx.getToken(), "token 已注销");
+            }
+            if (now - lastAccess > idleTimeoutMillis) {
+                throw new TokenException(ctx.getToken(), "token 长时间未使用，已过期");
+            }
+            tracker.record(tokenId, now);
+        }
+        chain.validate(ctx);
+    }
+}
@@ -0,0 +1,30 @@
+package top.mrys.auth.session;
+
+import java.util.Map;
+
+/**
+ * token 最后访问时间的存储
+ * <p>
+ * 由 {@link LastAccessTracker} 批量写入，实现可以基于数据库、Redis 等存储，批量写入应尽量使用一次往返完成。
+ *
+ * @author mrys
+ * @see InMemoryTokenAccessStore
+ */
+public interface TokenAccessStore {
+
+    /**
+     * 查询最后访问时间
+     *
+     * @param tokenId token 标识
+     * @return 最后访问时间（毫秒时间戳），没有记录时返回 null
+     */
+    Long getLastAccess(String tokenId);
+
+    /**
+     * 批量保存最后访问时间
+     * 实现应只在新的时间更晚时覆盖，多个实例同时写入时不会把时间改回去
+     *
+     * @param lastAccess token 标识到最后访问时间（毫秒时间戳）
+     */
+    void saveLastAccess(Map<String, Long> lastAccess);
+}
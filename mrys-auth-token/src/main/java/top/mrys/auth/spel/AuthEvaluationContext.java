@@ -0,0 +1,136 @@
+package top.mrys.auth.spel;
+
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.IndexAccessor;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单次求值使用的轻量上下文
+ * <p>
+ * 属性访问器、方法解析器、Bean 解析器等不可变部分委托给共享的 {@link StandardEvaluationContext}，
+ * 自定义函数来自启动时解析好的函数表，每次求值只绑定根对象、#token、#user、#request 和调用方传入的额外变量。
+ *
+ * @author mrys
+ */
+class AuthEvaluationContext implements EvaluationContext {
+
+    private final StandardEvaluationContext shared;
+    private final Map<String, Method> functions;
+    private final TypedValue rootObject;
+
+    private final Object token;
+    private final Object user;
+    private final Object request;
+
+    /**
+     * 调用方传入的额外变量，只读
+     */
+    private final Map<String, Object> extraVariables;
+
+    /**
+     * 其他变量，按需创建
+     */
+    private Map<String, Object> variables;
+
+    AuthEvaluationContext(StandardEvaluationContext shared, Map<String, Method> functions,
+                          Object rootObject, Object token, Object user, Object request,
+                          Map<String, Object> extraVariables) {
+        this.shared = shared;
+        this.functions = functions;
+        this.rootObject = rootObject == null ? TypedValue.NULL : new TypedValue(rootObject);
+        this.token = token;
+        this.user = user;
+        this.request = request;
+        this.extraVariables = extraVariables;
+    }
+
+    @Override
+    public TypedValue getRootObject() {
+        return rootObject;
+    }
+
+    @Override
+    public List<PropertyAccessor> getPropertyAccessors() {
+        return shared.getPropertyAccessors();
+    }
+
+    @Override
+    public List<IndexAccessor> getIndexAccessors() {
+        return shared.getIndexAccessors();
+    }
+
+    @Override
+    public List<ConstructorResolver> getConstructorResolvers() {
+        return shared.getConstructorResolvers();
+    }
+
+    @Override
+    public List<MethodResolver> getMethodResolvers() {
+        return shared.getMethodResolvers();
+    }
+
+    @Override
+    public BeanResolver getBeanResolver() {
+        return shared.getBeanResolver();
+    }
+
+    @Override
+    public TypeLocator getTypeLocator() {
+        return shared.getTypeLocator();
+    }
+
+    @Override
+    public TypeConverter getTypeConverter() {
+        return shared.getTypeConverter();
+    }
+
+    @Override
+    public TypeComparator getTypeComparator() {
+        return shared.getTypeComparator();
+    }
+
+    @Override
+    public OperatorOverloader getOperatorOverloader() {
+        return shared.getOperatorOverloader();
+    }
+
+    @Override
+    public void setVariable(String name, Object value) {
+        if (variables == null) {
+            variables = new HashMap<>(4);
+        }
+        variables.put(name, value);
+    }
+
+    @Override
+    public Object lookupVariable(String name) {
+        // 显式设置的变量优先，与 StandardEvaluationContext 中变量覆盖函数的行为一致
+        if (variables != null && variables.containsKey(name)) {
+            return variables.get(name);
+        }
+        Object extra = extraVariables.get(name);
+        if (extra != null) {
+            return extra;
+        }
+        return switch (name) {
+            case "token" -> token;
+            case "user" -> user;
+            case "request" -> request;
+            default -> functions.get(name);
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package top.mrys.auth.spel;
+
+import lombok.Getter;
+import org.springframework.expression.Expression;
+import top.mrys.auth.token.TokenContext;
+
+import java.util.function.Predicate;
+
+/**
+ * 解析后的权限表达式
+ * 能原生编译的表达式持有 {@link Predicate}，否则持有 SpEL {@link Expression}
+ *
+ * @author mrys
+ */
+@Getter
+public class AuthExpression {
+
+    private final String expressionString;
+
+    /**
+     * 原生编译的断言，不支持时为 null
+     */
+    private final Predicate<TokenContext> predicate;
+
+    /**
+     * SpEL 表达式，原生编译成功时为 null
+     */
+    private final Expression spelExpression;
+
+    AuthExpression(String expressionString, Predicate<TokenContext> predicate, Expression spelExpression) {
+        this.expressionString = expressionString;
+        this.predicate = predicate;
+        this.spelExpression = spelExpression;
+    }
+
+    /**
+     * 是否已原生编译
+     */
+    public boolean isNative() {
+        return predicate != null;
+    }
+}
@@ -0,0 +1,320 @@
+package top.mrys.auth.spel;
+
+import top.mrys.auth.token.AuthorityRegistry;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.UserInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 权限表达式的原生编译器
+ * <p>
+ * 识别常见的权限表达式子集，直接编译为 {@link Predicate} 树，不经过 SpEL：
+ * <ul>
+ *     <li>字面量 true、false</li>
+ *     <li>函数 #hasRole、#hasAnyRole、#hasAllRoles、#hasPermission、#hasAnyPermission、#hasAllPermissions、#isAuthenticated、#isAnonymous、#hasUserId、#hasUsername，参数只能是字符串字面量</li>
+ *     <li>运算符 and、or、not（以及 &amp;&amp;、||、!）和括号</li>
+ * </ul>
+ * 编译时会做常量折叠，如 {@code true and #hasRole('A')} 折叠为 {@code #hasRole('A')}。
+ * 角色、权限名称在编译时驻留到 {@link AuthorityRegistry}，用户信息经过 {@link UserInfo#compact()} 后按位检查。
+ * 超出该子集的表达式返回 null，由调用方回退到 SpEL。
+ *
+ * @author mrys
+ */
+public final class AuthPredicateCompiler {
+
+    static final Predicate<TokenContext> TRUE = context -> true;
+    static final Predicate<TokenContext> FALSE = context -> false;
+
+    private final List<String> tokens;
+    private int position;
+
+    private AuthPredicateCompiler(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param expression 权限表达式
+     * @return 编译后的断言，表达式不在支持的子集内时返回 null
+     */
+    public static Predicate<TokenContext> compile(String expression) {
+        List<String> tokens = tokenize(expression);
+        if (tokens == null || tokens.isEmpty()) {
+            return null;
+        }
+        AuthPredicateCompiler compiler = new AuthPredicateCompiler(tokens);
+        Predicate<TokenContext> predicate = compiler.parseOr();
+        if (predicate == null || compiler.position != tokens.size()) {
+            return null;
+        }
+        return predicate;
+    }
+
+    /**
+     * 是否为常量断言
+     */
+    public static boolean isConstant(Predicate<TokenContext> predicate) {
+        return predicate == TRUE || predicate == FALSE;
+    }
+
+    // or := and (('or' | '||') and)*
+    private Predicate<TokenContext> parseOr() {
+        Predicate<TokenContext> left = parseAnd();
+        while (left != null && (acceptKeyword("or") || accept("||"))) {
+            left = or(left, parseAnd());
+        }
+        return left;
+    }
+
+    // and := unary (('and' | '&&') unary)*
+    private Predicate<TokenContext> parseAnd() {
+        Predicate<TokenContext> left = parseUnary();
+        while (left != null && (acceptKeyword("and") || accept("&&"))) {
+            left = and(left, parseUnary());
+        }
+        return left;
+    }
+
+    // unary := ('not' | '!') unary | primary
+    private Predicate<TokenContext> parseUnary() {
+        if (acceptKeyword("not") || accept("!")) {
+            return not(parseUnary());
+        }
+        return parsePrimary();
+    }
+
+    // primary := '(' or ')' | 'true' | 'false' | '#' function '(' args ')'
+    private Predicate<TokenContext> parsePrimary() {
+        if (accept("(")) {
+            Predicate<TokenContext> inner = parseOr();
+            return accept(")") ? inner : null;
+        }
+        if (acceptKeyword("true")) {
+            return TRUE;
+        }
+        if (acceptKeyword("false")) {
+            return FALSE;
+        }
+        if (!accept("#") || position >= tokens.size()) {
+            return null;
+        }
+        String function = tokens.get(position++);
+        if (!accept("(")) {
+            return null;
+        }
+        List<String> args = new ArrayList<>();
+        if (!accept(")")) {
+            do {
+                String arg = position < tokens.size() ? tokens.get(position++) : null;
+                if (arg == null || !isStringLiteral(arg)) {
+                    return null;
+                }
+                args.add(arg.substring(1));
+            } while (accept(","));
+            if (!accept(")")) {
+                return null;
+            }
+        }
+        return function(function, args);
+    }
+
+    private static Predicate<TokenContext> function(String name, List<String> args) {
+        String[] values = args.toArray(new String[0]);
+        return switch (name) {
+            case "hasRole" -> values.length == 1 ? contains(UserInfo::getRoles, AuthorityRegistry.ROLES, values[0]) : null;
+            case "hasPermission" -> values.length == 1
+                    ? contains(UserInfo::getPermissions, AuthorityRegistry.PERMISSIONS, values[0]) : null;
+            case "hasUserId" -> values.length == 1 ? context -> AuthSpelFunctions.hasUserId(context, values[0]) : null;
+            case "hasUsername" -> values.length == 1 ? context -> AuthSpelFunctions.hasUsername(context, values[0]) : null;
+            case "hasAnyRole" -> values.length == 0 ? FALSE : containsAny(UserInfo::getRoles, AuthorityRegistry.ROLES, values);
+            case "hasAnyPermission" -> values.length == 0
+                    ? FALSE : containsAny(UserInfo::getPermissions, AuthorityRegistry.PERMISSIONS, values);
+            case "hasAllRoles" -> containsAll(UserInfo::getRoles, AuthorityRegistry.ROLES, values);
+            case "hasAllPermissions" -> containsAll(UserInfo::getPermissions, AuthorityRegistry.PERMISSIONS, values);
+            case "isAuthenticated" -> values.length == 0 ? AuthSpelFunctions::isAuthenticated : null;
+            case "isAnonymous" -> values.length == 0 ? AuthSpelFunctions::isAnonymous : null;
+            default -> null;
+        };
+    }
+
+    private static Predicate<TokenContext> contains(Function<UserInfo, Set<String>> owned,
+                                                    AuthorityRegistry registry, String value) {
+        int id = registry.intern(value);
+        return context -> {
+            UserInfo userInfo = context == null ? null : context.getUserInfo();
+            return userInfo != null && AuthSpelFunctions.contains(owned.apply(userInfo), value, registry, id);
+        };
+    }
+
+    private static Predicate<TokenContext> containsAny(Function<UserInfo, Set<String>> owned,
+                                                       AuthorityRegistry registry, String[] values) {
+        long[] mask = registry.encode(values);
+        return context -> {
+            UserInfo userInfo = context == null ? null : context.getUserInfo();
+            return userInfo != null && AuthSpelFunctions.containsAny(owned.apply(userInfo), values, registry, mask);
+        };
+    }
+
+    private static Predicate<TokenContext> containsAll(Function<UserInfo, Set<String>> owned,
+                                                       AuthorityRegistry registry, String[] values) {
+        long[] mask = registry.encode(values);
+        return context -> {
+            UserInfo userInfo = context == null ? null : context.getUserInfo();
+            return userInfo != null && AuthSpelFunctions.containsAll(owned.apply(userInfo), values, registry, mask);
+        };
+    }
+
+    private static Predicate<TokenContext> and(Predicate<TokenContext> left, Predicate<TokenContext> right) {
+        if (right == null) {
+            return null;
+        }
+        if (left == FALSE || right == FALSE) {
+            return FALSE;
+        }
+        if (left == TRUE) {
+            return right;
+        }
+        if (right == TRUE) {
+            return left;
+        }
+        return context -> left.test(context) && right.test(context);
+    }
+
+    private static Predicate<TokenContext> or(Predicate<TokenContext> left, Predicate<TokenContext> right) {
+        if (right == null) {
+            return null;
+        }
+        if (left == TRUE || right == TRUE) {
+            return TRUE;
+        }
+        if (left == FALSE) {
+            return right;
+        }
+        if (right == FALSE) {
+            return left;
+        }
+        return context -> left.test(context) || right.test(context);
+    }
+
+    private static Predicate<TokenContext> not(Predicate<TokenContext> operand) {
+        if (operand == null) {
+            return null;
+        }
+        if (operand == TRUE) {
+            return FALSE;
+        }
+        if (operand == FALSE) {
+            return TRUE;
+        }
+        return context -> !operand.test(context);
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * SpEL 的文本运算符和布尔字面量不区分大小写
+     */
+    private boolean acceptKeyword(String keyword) {
+        if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword)
+                && (position == 0 || !tokens.get(position - 1).equals("#"))) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isStringLiteral(String token) {
+        return !token.isEmpty() && token.charAt(0) == '\0';
+    }
+
+    /**
+     * 词法分析
+     * 字符串字面量以 '\0' 开头标记，后面是去掉引号和转义后的内容
+     *
+     * @return 词法单元，包含无法识别的字符时返回 null
+     */
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int length = expression.length();
+        int i = 0;
+        while (i < length) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')' || c == ',' || c == '#') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '!') {
+                // != 不在支持范围内
+                if (i + 1 < length && expression.charAt(i + 1) == '=') {
+                    return null;
+                }
+                tokens.add("!");
+                i++;
+            } else if ((c == '&' || c == '|') && i + 1 < length && expression.charAt(i + 1) == c) {
+                tokens.add(c == '&' ? "&&" : "||");
+                i += 2;
+            } else if (c == '\'' || c == '"') {
+                StringBuilder literal = new StringBuilder().append('\0');
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        return null;
+                    }
+                    char ch = expression.charAt(i);
+                    if (ch == c) {
+                        // SpEL 中连续两个引号表示引号本身
+                        if (i + 1 < length && expression.charAt(i + 1) == c) {
+                            literal.append(c);
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    literal.append(ch);
+                    i++;
+                }
+                tokens.add(literal.toString());
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            } else {
+                return null;
+            }
+        }
+        // 只有函数名、关键字可以作为标识符出现，其他标识符（属性访问、Bean 引用等）交给 SpEL
+        for (int j = 0; j < tokens.size(); j++) {
+            String token = tokens.get(j);
+            if (Character.isJavaIdentifierStart(token.charAt(0))
+                    && (j == 0 || !tokens.get(j - 1).equals("#"))
+                    && !isKeyword(token)) {
+                return null;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isKeyword(String token) {
+        return switch (token.toLowerCase(Locale.ROOT)) {
+            case "and", "or", "not", "true", "false" -> true;
+            default -> false;
+        };
+    }
+}
@@ -8,17 +8,23 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.util.StringUtils;
+import top.mrys.auth.token.SimpleToken;
 import top.mrys.auth.token.TokenContext;
 import top.mrys.auth.token.UserInfo;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.lang.reflect.Method;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Function;
 
 /**
  * SpEL 表达式求值器
@@ -29,17 +35,29 @@ import java.util.function.Function;
 @Slf4j
 public class AuthSpelEvaluator {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
-    private final ConcurrentMap<String, Expression> expressionCache = new ConcurrentHashMap<>();
-    private final AuthSpelFunctions spelFunctions = new AuthSpelFunctions();
-    private final ApplicationContext applicationContext;
+    /**
+     * 自定义函数表，类加载时解析一次
+     */
+    private static final Map<String, Method> FUNCTIONS = resolveSpelFunctions();
 
+    private final AuthSpelExpressionParser expressionParser;
+    private final StandardEvaluationContext sharedContext;
+
+    /**
+     * 求值上下文扩展，对所有求值生效，应在初始化时设置
+     * 单次求值的变量请通过 {@link #evaluate(String, TokenContext, HttpServletRequest, Map)} 传入
+     */
     @Getter
     @Setter
-    private Consumer<EvaluationContext> evaluationContextConsumer;
+    private volatile Consumer<EvaluationContext> evaluationContextConsumer;
 
     public AuthSpelEvaluator(ApplicationContext applicationContext) {
-        this.applicationContext = applicationContext;
+        this(applicationContext, new AuthSpelExpressionParser());
+    }
+
+    public AuthSpelEvaluator(ApplicationContext applicationContext, AuthSpelExpressionParser expressionParser) {
+        this.sharedContext = createSharedContext(applicationContext);
+        this.expressionParser = expressionParser;
     }
 
 
@@ -52,6 +70,43 @@ public class AuthSpelEvaluator {
      * @return 表达式执行结果
      */
     public boolean evaluate(String expression, TokenContext context, HttpServletRequest request) {
+        return evaluate(expression, context, request, Collections.emptyMap());
+    }
+
+    /**
+     * 评估 SpEL 表达式
+     * 求值器是无状态的单例，本次求值需要的额外变量（如 #alias）通过参数传入
+     *
+     * @param expression SpEL 表达式字符串
+     * @param context    认证上下文
+     * @param request    HTTP 请求
+     * @param variables  额外变量
+     * @return 表达式执行结果
+     */
+    public boolean evaluate(String expression, TokenContext context, HttpServletRequest request,
+                            Map<String, Object> variables) {
+        return doEvaluate(expression, context, request, variables);
+    }
+
+    /**
+     * 在响应式应用中评估 SpEL 表达式
+     * <p>
+     * 响应式请求没有绑定到线程的认证上下文，求值期间临时把 context 绑定到当前线程，
+     * 使 {@link AuthSpelFunctions} 中读取 {@link TokenContext#get()} 的函数可以正常工作。
+     *
+     * @param expression SpEL 表达式字符串
+     * @param context    认证上下文
+     * @param request    响应式 HTTP 请求，表达式中通过 #request 访问
+     * @param variables  额外变量
+     * @return 表达式执行结果
+     */
+    public boolean evaluateReactive(String expression, TokenContext context, ServerHttpRequest request,
+                                    Map<String, Object> variables) {
+        return TokenContext.callWith(context, () -> doEvaluate(expression, context, request, variables));
+    }
+
+    private boolean doEvaluate(String expression, TokenContext context, Object request,
+                               Map<String, Object> variables) {
         if (!StringUtils.hasText(expression)) {
             return true;
         }
@@ -72,10 +127,16 @@ public class AuthSpelEvaluator {
             }
 
             // 获取或创建表达式
-            Expression expr = getExpression(expression);
+            AuthExpression authExpression = expressionParser.parse(expression);
+
+            // 原生编译的表达式直接执行
+            if (authExpression.isNative()) {
+                return authExpression.getPredicate().test(context);
+            }
+            Expression expr = authExpression.getSpelExpression();
 
             // 创建求值上下文
-            EvaluationContext evalContext = createEvaluationContext(context, request);
+            EvaluationContext evalContext = createEvaluationContext(context, request, variables);
 
             // 执行表达式
             Object result = expr.getValue(evalContext);
@@ -90,30 +151,101 @@ public class AuthSpelEvaluator {
     }
 
     /**
-     * 获取或创建表达式（带缓存）
+     * 预编译表达式
+     * <p>
+     * 已经编译为原生断言的表达式会被跳过。
+     * 分别以"拥有所有角色权限的已登录用户"和"匿名用户"各执行一次表达式，让 SpEL 记录下各节点的类型，然后编译为字节码。
+     * 两次执行都没有走到的分支（如 {@code a and (b or c)} 中的 c）无法在启动时编译，
+     * 运行时会按配置的编译模式在真实请求执行后再次尝试。
+     *
+     * @param expressions 表达式集合
+     * @return 无法编译的表达式
      */
-    private Expression getExpression(String expressionString) {
-        return expressionCache.computeIfAbsent(expressionString, parser::parseExpression);
+    public Set<String> precompile(Collection<String> expressions) {
+        Set<String> failed = new LinkedHashSet<>();
+        for (String expression : expressions) {
+            if (!StringUtils.hasText(expression) || isConstant(expression.trim())) {
+                continue;
+            }
+            String trimmed = expression.trim();
+            AuthExpression authExpression;
+            try {
+                authExpression = expressionParser.parse(trimmed);
+            } catch (Exception e) {
+                log.warn("SpEL 表达式解析失败: {}", trimmed, e);
+                failed.add(trimmed);
+                continue;
+            }
+            if (authExpression.isNative()) {
+                // 已编译为原生断言，无需 SpEL 编译
+                continue;
+            }
+            Expression expr = authExpression.getSpelExpression();
+            try {
+                warmUp(expr, privilegedContext());
+                warmUp(expr, new TokenContext());
+            } catch (Exception e) {
+                log.debug("SpEL 表达式预执行失败: {}", trimmed, e);
+            }
+            if (!expressionParser.compile(expr)) {
+                failed.add(trimmed);
+            }
+        }
+        return failed;
+    }
+
+    private void warmUp(Expression expression, TokenContext context) {
+        TokenContext.runWith(context,
+                () -> expression.getValue(createEvaluationContext(context, null, Collections.emptyMap())));
+    }
+
+    private static boolean isConstant(String expression) {
+        return "true".equals(expression) || "false".equals(expression);
     }
 
     /**
-     * 创建 SpEL 求值上下文
+     * 拥有所有角色和权限的已登录上下文，用于预执行
      */
-    private EvaluationContext createEvaluationContext(TokenContext context, HttpServletRequest request) {
-        StandardEvaluationContext evalContext = new StandardEvaluationContext();
+    private static TokenContext privilegedContext() {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setRoles(AllNames.INSTANCE);
+        userInfo.setPermissions(AllNames.INSTANCE);
+        TokenContext context = new TokenContext();
+        context.setToken(new SimpleToken("", true, "precompile", ""));
+        context.setUserInfo(userInfo);
+        return context;
+    }
 
-        // 设置根对象为认证上下文
-        evalContext.setRootObject(context);
+    /**
+     * 包含任意名称的集合
+     */
+    private static class AllNames extends AbstractSet<String> {
+        private static final AllNames INSTANCE = new AllNames();
 
-        evalContext.setBeanResolver(new BeanFactoryResolver(applicationContext));
+        @Override
+        public boolean contains(Object o) {
+            return true;
+        }
 
-        // 注册变量
-        evalContext.setVariable("token", context.getToken());
-        evalContext.setVariable("user", context.getUserInfo());
-        evalContext.setVariable("request", request);
+        @Override
+        public Iterator<String> iterator() {
+            return Collections.emptyIterator();
+        }
 
-        // 注册自定义函数
-        registerSpelFunctions(evalContext);
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    /**
+     * 创建 SpEL 求值上下文
+     */
+    private EvaluationContext createEvaluationContext(TokenContext context, Object request,
+                                                      Map<String, Object> variables) {
+        // 根对象为认证上下文，只绑定本次求值的变量，其余部分复用共享上下文
+        EvaluationContext evalContext = new AuthEvaluationContext(sharedContext, FUNCTIONS,
+                context, context.getToken(), context.getUserInfo(), request, variables);
 
         // 如果有额外的上下文处理器，则执行
         if (evaluationContextConsumer != null) {
@@ -123,30 +255,52 @@ public class AuthSpelEvaluator {
     }
 
     /**
-     * 注册 SpEL 自定义函数
+     * 创建共享的求值上下文，属性访问器、方法解析器等在所有求值间复用
      */
-    private void registerSpelFunctions(StandardEvaluationContext context) {
+    private static StandardEvaluationContext createSharedContext(ApplicationContext applicationContext) {
+        StandardEvaluationContext shared = new StandardEvaluationContext();
+        shared.setBeanResolver(new BeanFactoryResolver(applicationContext));
+        // 提前初始化延迟创建的默认组件，之后只读访问
+        shared.getPropertyAccessors();
+        shared.getIndexAccessors();
+        shared.getConstructorResolvers();
+        shared.getMethodResolvers();
+        shared.getTypeLocator();
+        shared.getTypeConverter();
+        return shared;
+    }
+
+    /**
+     * 解析 SpEL 自定义函数
+     * 注册为 Method 而不是 MethodHandle，SpEL 只能把以 Method 注册的函数编译为字节码
+     */
+    private static Map<String, Method> resolveSpelFunctions() {
         try {
-            // 注册权限检查函数
-            context.registerFunction("hasRole", 
+            Map<String, Method> functions = new HashMap<>();
+            // 权限检查函数
+            functions.put("hasRole",
                 AuthSpelFunctions.class.getDeclaredMethod("hasRole", String.class));
-            context.registerFunction("hasAnyRole", 
+            functions.put("hasAnyRole",
                 AuthSpelFunctions.class.getDeclaredMethod("hasAnyRole", String[].class));
-            context.registerFunction("hasPermission", 
+            functions.put("hasAllRoles",
+                AuthSpelFunctions.class.getDeclaredMethod("hasAllRoles", String[].class));
+            functions.put("hasPermission",
                 AuthSpelFunctions.class.getDeclaredMethod("hasPermission", String.class));
-            context.registerFunction("hasAnyPermission", 
+            functions.put("hasAnyPermission",
                 AuthSpelFunctions.class.getDeclaredMethod("hasAnyPermission", String[].class));
-            context.registerFunction("isAuthenticated", 
+            functions.put("hasAllPermissions",
+                AuthSpelFunctions.class.getDeclaredMethod("hasAllPermissions", String[].class));
+            functions.put("isAuthenticated",
                 AuthSpelFunctions.class.getDeclaredMethod("isAuthenticated"));
-            context.registerFunction("isAnonymous", 
+            functions.put("isAnonymous",
                 AuthSpelFunctions.class.getDeclaredMethod("isAnonymous"));
-            context.registerFunction("hasUserId", 
+            functions.put("hasUserId",
                 AuthSpelFunctions.class.getDeclaredMethod("hasUserId", String.class));
-            context.registerFunction("hasUsername", 
+            functions.put("hasUsername",
                 AuthSpelFunctions.class.getDeclaredMethod("hasUsername", String.class));
-
+            return Collections.unmodifiableMap(functions);
         } catch (NoSuchMethodException e) {
-            log.error("注册 SpEL 函数失败", e);
+            throw new IllegalStateException("解析 SpEL 函数失败", e);
         }
     }
 
@@ -173,13 +327,13 @@ public class AuthSpelEvaluator {
      * 清理表达式缓存
      */
     public void clearCache() {
-        expressionCache.clear();
+        expressionParser.clearCache();
     }
 
     /**
      * 获取缓存大小
      */
     public int getCacheSize() {
-        return expressionCache.size();
+        return expressionParser.getCacheSize();
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package top.mrys.auth.spel;
+
+import lombok.Getter;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import top.mrys.auth.cache.SegmentedLruCache;
+import top.mrys.auth.token.TokenContext;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * SpEL 表达式解析器
+ * 负责表达式的解析、缓存和编译，单例共享，解析结果在所有请求间复用
+ * <p>
+ * 常见的权限表达式优先由 {@link AuthPredicateCompiler} 编译为原生断言，其余表达式交给 SpEL 解析
+ *
+ * @author mrys
+ */
+public class AuthSpelExpressionParser {
+
+    private final SpelExpressionParser parser;
+
+    /**
+     * 表达式缓存，未启用缓存时为 null
+     */
+    private final SegmentedLruCache<String, AuthExpression> expressionCache;
+
+    /**
+     * 是否启用原生编译
+     */
+    @Getter
+    private final boolean nativeCompile;
+
+    /**
+     * 编译模式
+     */
+    @Getter
+    private final SpelCompilerMode compilerMode;
+
+    /**
+     * 无法编译为字节码的表达式，仍以解释模式执行
+     */
+    private final Set<String> uncompiledExpressions = ConcurrentHashMap.newKeySet();
+
+    public AuthSpelExpressionParser() {
+        this(SpelCompilerMode.OFF, true, true, 256);
+    }
+
+    /**
+     * @param compilerMode  编译模式
+     * @param nativeCompile 是否将常见表达式编译为原生断言
+     * @param enableCache   是否缓存解析结果
+     * @param cacheSize     缓存的最大表达式数量
+     */
+    public AuthSpelExpressionParser(SpelCompilerMode compilerMode, boolean nativeCompile,
+                                    boolean enableCache, int cacheSize) {
+        this.compilerMode = compilerMode;
+        this.nativeCompile = nativeCompile;
+        this.expressionCache = enableCache ? new SegmentedLruCache<>(cacheSize) : null;
+        // 编译后的类使用线程上下文类加载器，保证能访问到应用中的用户类型
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(compilerMode, null));
+    }
+
+    /**
+     * 获取或解析表达式（带缓存）
+     */
+    public AuthExpression parse(String expressionString) {
+        if (expressionCache == null) {
+            return doParse(expressionString);
+        }
+        return expressionCache.get(expressionString, this::doParse);
+    }
+
+    private AuthExpression doParse(String expressionString) {
+        Predicate<TokenContext> predicate = nativeCompile ? AuthPredicateCompiler.compile(expressionString) : null;
+        if (predicate != null) {
+            return new AuthExpression(expressionString, predicate, null);
+        }
+        return new AuthExpression(expressionString, null, parser.parseExpression(expressionString));
+    }
+
+    /**
+     * 将表达式编译为字节码
+     * 表达式需要先至少执行一次，SpEL 才能确定各节点的类型，未执行到的分支无法编译
+     *
+     * @param expression 已执行过的表达式
+     * @return 是否编译成功
+     */
+    public boolean compile(Expression expression) {
+        String expressionString = expression.getExpressionString();
+        boolean compiled = expression instanceof SpelExpression spelExpression && spelExpression.compileExpression();
+        if (compiled) {
+            uncompiledExpressions.remove(expressionString);
+        } else {
+            uncompiledExpressions.add(expressionString);
+        }
+        return compiled;
+    }
+
+    /**
+     * 是否启用了字节码编译
+     */
+    public boolean isCompilerEnabled() {
+        return compilerMode != SpelCompilerMode.OFF;
+    }
+
+    /**
+     * 获取无法编译的表达式
+     */
+    public Set<String> getUncompiledExpressions() {
+        return Collections.unmodifiableSet(uncompiledExpressions);
+    }
+
+    /**
+     * 清理表达式缓存
+     */
+    public void clearCache() {
+        if (expressionCache != null) {
+            expressionCache.invalidateAll();
+        }
+        uncompiledExpressions.clear();
+    }
+
+    /**
+     * 获取缓存大小
+     */
+    public int getCacheSize() {
+        return expressionCache == null ? 0 : expressionCache.size();
+    }
+
+    /**
+     * 表达式缓存，未启用缓存时返回 null，用于监控
+     */
+    public SegmentedLruCache<String, ?> getExpressionCache() {
+        return expressionCache;
+    }
+}
@@ -1,14 +1,19 @@
 package top.mrys.auth.spel;
 
+import top.mrys.auth.token.AuthorityRegistry;
+import top.mrys.auth.token.AuthoritySet;
 import top.mrys.auth.token.TokenContext;
 import top.mrys.auth.token.UserInfo;
 
-import java.util.Arrays;
 import java.util.Set;
 
 /**
  * SpEL 自定义函数集合
  * 提供常用的权限检查函数
+ * <p>
+ * 无上下文参数的方法供 SpEL 调用，从当前线程的 {@link TokenContext} 读取用户信息；
+ * 带上下文参数的重载供原生编译的权限断言直接调用。
+ * 用户的角色、权限为 {@link AuthoritySet} 时，原生断言使用编译期计算好的位图做检查。
  *
  * @author mrys
  */
@@ -21,7 +26,10 @@ public class AuthSpelFunctions {
      * @return 是否拥有角色
      */
     public static boolean hasRole(String role) {
-        TokenContext context = TokenContext.get();
+        return hasRole(TokenContext.get(), role);
+    }
+
+    public static boolean hasRole(TokenContext context, String role) {
         if (context == null || context.getUserInfo() == null) {
             return false;
         }
@@ -38,19 +46,39 @@ public class AuthSpelFunctions {
      * @return 是否拥有任意角色
      */
     public static boolean hasAnyRole(String... roles) {
+        return hasAnyRole(TokenContext.get(), roles);
+    }
+
+    public static boolean hasAnyRole(TokenContext context, String... roles) {
         if (roles == null || roles.length == 0) {
             return false;
         }
 
-        TokenContext context = TokenContext.get();
         if (context == null || context.getUserInfo() == null) {
             return false;
         }
 
         UserInfo userInfo = context.getUserInfo();
-        Set<String> userRoles = userInfo.getRoles();
+        return containsAny(userInfo.getRoles(), roles);
+    }
+
+    /**
+     * 检查用户是否拥有全部指定角色
+     *
+     * @param roles 角色数组
+     * @return 是否拥有全部角色
+     */
+    public static boolean hasAllRoles(String... roles) {
+        return hasAllRoles(TokenContext.get(), roles);
+    }
 
-        return Arrays.stream(roles).anyMatch(userRoles::contains);
+    public static boolean hasAllRoles(TokenContext context, String... roles) {
+        if (roles == null || context == null || context.getUserInfo() == null) {
+            return false;
+        }
+
+        UserInfo userInfo = context.getUserInfo();
+        return containsAll(userInfo.getRoles(), roles);
     }
 
     /**
@@ -60,7 +88,10 @@ public class AuthSpelFunctions {
      * @return 是否拥有权限
      */
     public static boolean hasPermission(String permission) {
-        TokenContext context = TokenContext.get();
+        return hasPermission(TokenContext.get(), permission);
+    }
+
+    public static boolean hasPermission(TokenContext context, String permission) {
         if (context == null || context.getUserInfo() == null) {
             return false;
         }
@@ -77,19 +108,39 @@ public class AuthSpelFunctions {
      * @return 是否拥有任意权限
      */
     public static boolean hasAnyPermission(String... permissions) {
+        return hasAnyPermission(TokenContext.get(), permissions);
+    }
+
+    public static boolean hasAnyPermission(TokenContext context, String... permissions) {
         if (permissions == null || permissions.length == 0) {
             return false;
         }
 
-        TokenContext context = TokenContext.get();
         if (context == null || context.getUserInfo() == null) {
             return false;
         }
 
         UserInfo userInfo = context.getUserInfo();
-        Set<String> userPermissions = userInfo.getPermissions();
+        return containsAny(userInfo.getPermissions(), permissions);
+    }
+
+    /**
+     * 检查用户是否拥有全部指定权限
+     *
+     * @param permissions 权限数组
+     * @return 是否拥有全部权限
+     */
+    public static boolean hasAllPermissions(String... permissions) {
+        return hasAllPermissions(TokenContext.get(), permissions);
+    }
 
-        return Arrays.stream(permissions).anyMatch(userPermissions::contains);
+    public static boolean hasAllPermissions(TokenContext context, String... permissions) {
+        if (permissions == null || context == null || context.getUserInfo() == null) {
+            return false;
+        }
+
+        UserInfo userInfo = context.getUserInfo();
+        return containsAll(userInfo.getPermissions(), permissions);
     }
 
     /**
@@ -98,7 +149,10 @@ public class AuthSpelFunctions {
      * @return 是否已认证
      */
     public static boolean isAuthenticated() {
-        TokenContext context = TokenContext.get();
+        return isAuthenticated(TokenContext.get());
+    }
+
+    public static boolean isAuthenticated(TokenContext context) {
         return context != null &&
                 context.getToken() != null &&
                 context.getToken().isValid() &&
@@ -114,6 +168,10 @@ public class AuthSpelFunctions {
         return !isAuthenticated();
     }
 
+    public static boolean isAnonymous(TokenContext context) {
+        return !isAuthenticated(context);
+    }
+
     /**
      * 检查用户ID是否匹配
      *
@@ -121,7 +179,10 @@ public class AuthSpelFunctions {
      * @return 是否匹配
      */
     public static boolean hasUserId(String userId) {
-        TokenContext context = TokenContext.get();
+        return hasUserId(TokenContext.get(), userId);
+    }
+
+    public static boolean hasUserId(TokenContext context, String userId) {
         if (context == null || context.getUserInfo() == null) {
             return false;
         }
@@ -137,7 +198,10 @@ public class AuthSpelFunctions {
      * @return 是否匹配
      */
     public static boolean hasUsername(String username) {
-        TokenContext context = TokenContext.get();
+        return hasUsername(TokenContext.get(), username);
+    }
+
+    public static boolean hasUsername(TokenContext context, String username) {
         if (context == null || context.getUserInfo() == null) {
             return false;
         }
@@ -146,4 +210,58 @@ public class AuthSpelFunctions {
         return username != null && username.equals(userInfo.getUsername());
     }
 
-}
\ No newline at end of file
+    /**
+     * 检查是否包含任意一个，owned 为 {@link AuthoritySet} 时直接用位图计算
+     *
+     * @param mask names 在 registry 中的位图
+     */
+    static boolean containsAny(Set<String> owned, String[] names, AuthorityRegistry registry, long[] mask) {
+        if (owned instanceof AuthoritySet set && set.getRegistry() == registry) {
+            return set.containsAny(mask);
+        }
+        return containsAny(owned, names);
+    }
+
+    /**
+     * 检查是否包含全部，owned 为 {@link AuthoritySet} 时直接用位图计算
+     *
+     * @param mask names 在 registry 中的位图
+     */
+    static boolean containsAll(Set<String> owned, String[] names, AuthorityRegistry registry, long[] mask) {
+        if (owned instanceof AuthoritySet set && set.getRegistry() == registry) {
+            return set.containsAll(mask);
+        }
+        return containsAll(owned, names);
+    }
+
+    /**
+     * 检查是否包含指定名称，owned 为 {@link AuthoritySet} 时直接按 id 检查
+     *
+     * @param id name 在 registry 中的 id
+     */
+    static boolean contains(Set<String> owned, String name, AuthorityRegistry registry, int id) {
+        if (owned instanceof AuthoritySet set && set.getRegistry() == registry) {
+            return set.containsId(id);
+        }
+        return owned.contains(name);
+    }
+
+    private static boolean containsAny(Set<String> owned, String[] names) {
+        for (String name : names) {
+            if (owned.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAll(Set<String> owned, String[] names) {
+        for (String name : names) {
+            if (!owned.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,166 @@
+package top.mrys.auth.token;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 角色、权限名称注册表
+ * <p>
+ * 将名称驻留为从 0 开始的整数 id，配合 {@link AuthoritySet} 用位图表示用户的角色和权限。
+ * 名称只增不减，注册表大小等于系统中出现过的不同名称数量，应用于有限的角色、权限集合。
+ * <p>
+ * 来自代码或配置的名称（如权限表达式中的名称）通过 {@link #intern(String)} 驻留，不受容量限制；
+ * 来自用户数据（如 token 声明）的名称应通过 {@link #tryEncode(Collection)} 驻留，注册表达到容量后不再接受新名称，
+ * 避免外部输入使注册表无限增长。
+ *
+ * @author mrys
+ */
+public final class AuthorityRegistry {
+
+    /**
+     * 角色注册表
+     */
+    public static final AuthorityRegistry ROLES = new AuthorityRegistry();
+
+    /**
+     * 权限注册表
+     */
+    public static final AuthorityRegistry PERMISSIONS = new AuthorityRegistry();
+
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final int maxSize;
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile String[] names = new String[64];
+    private int size;
+
+    public AuthorityRegistry() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize {@link #tryIntern(String)} 允许的最大名称数量
+     */
+    public AuthorityRegistry(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 驻留名称，返回其 id，不受容量限制
+     */
+    public int intern(String name) {
+        return intern(name, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 驻留名称，返回其 id，注册表已达到容量且名称未注册时返回 -1
+     */
+    public int tryIntern(String name) {
+        return intern(name, maxSize);
+    }
+
+    private int intern(String name, int limit) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        lock.lock();
+        try {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size >= limit) {
+                return -1;
+            }
+            String[] current = names;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[size] = name;
+            names = current;
+            // 先写入名称再发布 id，读到 id 的线程一定能读到名称
+            ids.put(name, size);
+            return size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 查询名称的 id，未注册时返回 -1
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 查询 id 对应的名称
+     */
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * 已注册的名称数量
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * 将名称集合编码为位图，未注册的名称会被驻留
+     */
+    public long[] encode(Collection<String> names) {
+        long[] bits = new long[0];
+        for (String name : names) {
+            bits = set(bits, intern(name));
+        }
+        return bits;
+    }
+
+    /**
+     * 将名称集合编码为位图，未注册的名称按容量限制驻留
+     *
+     * @return 位图，注册表已满无法驻留某个名称时返回 null
+     */
+    public long[] tryEncode(Collection<String> names) {
+        long[] bits = new long[0];
+        for (String name : names) {
+            int id = tryIntern(name);
+            if (id < 0) {
+                return null;
+            }
+            bits = set(bits, id);
+        }
+        return bits;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 将名称数组编码为位图，未注册的名称会被驻留
+     */
+    public long[] encode(String... names) {
+        return encode(Arrays.asList(names));
+    }
+
+    private static long[] set(long[] bits, int id) {
+        int word = id >>> 6;
+        if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, word + 1);
+        }
+        bits[word] |= 1L << id;
+        return bits;
+    }
+}
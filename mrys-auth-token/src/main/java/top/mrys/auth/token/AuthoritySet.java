@@ -0,0 +1,144 @@
+package top.mrys.auth.token;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 以位图存储的不可变角色、权限集合
+ * <p>
+ * 名称通过 {@link AuthorityRegistry} 映射为 id，每个名称只占一个比特。
+ * 任意包含、全部包含的检查是按字（64 位）做与运算，不需要逐个计算字符串哈希。
+ *
+ * @author mrys
+ */
+public final class AuthoritySet extends AbstractSet<String> {
+
+    private final AuthorityRegistry registry;
+    private final long[] bits;
+    private final int size;
+
+    private AuthoritySet(AuthorityRegistry registry, long[] bits) {
+        this.registry = registry;
+        this.bits = bits;
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        this.size = count;
+    }
+
+    /**
+     * 由名称集合创建
+     */
+    public static AuthoritySet of(AuthorityRegistry registry, Collection<String> names) {
+        if (names instanceof AuthoritySet set && set.registry == registry) {
+            return set;
+        }
+        return new AuthoritySet(registry, registry.encode(names));
+    }
+
+    /**
+     * 由名称集合创建，名称按注册表容量限制驻留
+     *
+     * @return 集合，注册表已满无法驻留某个名称时返回 null
+     */
+    public static AuthoritySet tryOf(AuthorityRegistry registry, Collection<String> names) {
+        if (names instanceof AuthoritySet set && set.registry == registry) {
+            return set;
+        }
+        long[] bits = registry.tryEncode(names);
+        return bits == null ? null : new AuthoritySet(registry, bits);
+    }
+
+    /**
+     * 是否包含指定 id
+     */
+    public boolean containsId(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否包含位图中的任意一个
+     */
+    public boolean containsAny(long[] mask) {
+        int length = Math.min(bits.length, mask.length);
+        for (int i = 0; i < length; i++) {
+            if ((bits[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否包含位图中的全部
+     */
+    public boolean containsAll(long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            long word = i < bits.length ? bits[i] : 0L;
+            if ((word & mask[i]) != mask[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public AuthorityRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String name && containsId(registry.idOf(name));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int next = nextId(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                String name = registry.nameOf(next);
+                next = nextId(next + 1);
+                return name;
+            }
+        };
+    }
+
+    private int nextId(int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (++word >= bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package top.mrys.auth.token;
+
+import org.springframework.util.Assert;
+import top.mrys.auth.cache.SegmentedLruCache;
+import top.mrys.auth.exceptions.TokenException;
+
+import java.time.Duration;
+
+/**
+ * 带缓存的 token 验证器
+ * <p>
+ * 包装任意 {@link TokenValidator}，以 token 的 SHA-256 摘要为键缓存验证结果（用户信息、是否有效、是否继续执行验证链）。
+ * 同一个 token 在有效期内再次请求时直接重放结果，不再调用被包装的验证器（如远程用户服务）。
+ * 验证失败的结果也会以较短的时间缓存，避免无效 token 反复击穿到下游。
+ * <p>
+ * 缓存的 {@link UserInfo} 在命中的请求之间共享，应视为只读。
+ * 用户信息变更（如禁用、角色调整）后可通过 {@link #invalidate(Token)} 或 {@link #invalidateAll()} 使缓存失效。
+ *
+ * <pre>
+ * wrapper.addTokenValidators(new CachingTokenValidator(userTokenValidator, Duration.ofMinutes(5), Duration.ofSeconds(10), 10000));
+ * </pre>
+ *
+ * @author mrys
+ */
+public class CachingTokenValidator implements TokenValidator {
+
+    private final TokenValidator delegate;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final SegmentedLruCache<TokenDigest.Key, ValidationOutcome> cache;
+
+    /**
+     * 使用默认配置：有效结果缓存 5 分钟，无效结果缓存 10 秒，最多 10000 个 token
+     */
+    public CachingTokenValidator(TokenValidator delegate) {
+        this(delegate, Duration.ofMinutes(5), Duration.ofSeconds(10), 10000);
+    }
+
+    /**
+     * @param delegate    被包装的验证器
+     * @param ttl         有效结果的缓存时间
+     * @param negativeTtl 无效结果的缓存时间，为 null 或 0 时不缓存无效结果
+     * @param maximumSize 最多缓存的 token 数量
+     */
+    public CachingTokenValidator(TokenValidator delegate, Duration ttl, Duration negativeTtl, int maximumSize) {
+        Assert.notNull(delegate, "delegate 不能为空");
+        Assert.isTrue(ttl != null && !ttl.isNegative() && !ttl.isZero(), "ttl 必须大于 0");
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl == null || negativeTtl.isNegative() || negativeTtl.isZero() ? null : negativeTtl;
+        this.cache = new SegmentedLruCache<>(maximumSize);
+    }
+
+    @Override
+    public boolean support(Token token) {
+        return delegate.support(token);
+    }
+
+    @Override
+    public void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        TokenDigest.Key key = TokenDigest.key(ctx.getToken());
+        if (key == null) {
+            delegate.validate(chain, ctx);
+            return;
+        }
+        ValidationOutcome outcome = cache.get(key);
+        if (outcome != null) {
+            outcome.replay(chain, ctx);
+            return;
+        }
+        load(key, chain, ctx);
+    }
+
+    /**
+     * 调用被包装的验证器并缓存结果
+     * 被包装的验证器单独执行，缓存的只是它自己的结果，之后再按结果继续执行后续验证器
+     */
+    private void load(TokenDigest.Key key, TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        ValidationOutcome outcome;
+        boolean proceeded;
+        try {
+            proceeded = TokenValidatorChain.invoke(delegate, ctx);
+            outcome = ValidationOutcome.completed(ctx, proceeded);
+        } catch (TokenException e) {
+            outcome = ValidationOutcome.failed(e);
+            if (negativeTtl != null) {
+                cache.put(key, outcome, negativeTtl);
+            }
+            throw e;
+        }
+        if (outcome.isSuccessful()) {
+            cache.put(key, outcome, ttl);
+        } else if (negativeTtl != null) {
+            cache.put(key, outcome, negativeTtl);
+        }
+        if (proceeded && chain != null) {
+            chain.validate(ctx);
+        }
+    }
+
+    /**
+     * 使指定 token 的缓存失效
+     */
+    public void invalidate(Token token) {
+        TokenDigest.Key key = TokenDigest.key(token);
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * 使指定 token 原文的缓存失效
+     */
+    public void invalidate(String token) {
+        cache.invalidate(TokenDigest.key(token));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public TokenValidator getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 验证结果缓存，用于监控
+     */
+    public SegmentedLruCache<?, ?> getCache() {
+        return cache;
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+}
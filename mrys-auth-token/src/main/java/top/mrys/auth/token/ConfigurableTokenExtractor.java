@@ -0,0 +1,132 @@
+package top.mrys.auth.token;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import top.mrys.auth.properties.AuthProperties;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 按 {@link AuthProperties.TokenConfig} 提取 token
+ * <p>
+ * 创建时把配置整理为固定的查找顺序：请求头（按配置顺序）、查询参数、Cookie，未启用的来源不会检查。
+ * 提取时不创建 Optional、Stream 等中间对象，只有去掉 "Bearer " 前缀时才复制一次字符串。
+ *
+ * @author mrys
+ */
+public class ConfigurableTokenExtractor implements TokenExtractor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * 启用的请求头名称，未启用时为空数组
+     */
+    private final String[] headerNames;
+
+    /**
+     * 查询参数名，未启用时为 null
+     */
+    private final String parameterName;
+
+    /**
+     * Cookie 名称，未启用时为 null
+     */
+    private final String cookieName;
+
+    private final boolean stripBearerPrefix;
+
+    public ConfigurableTokenExtractor(AuthProperties.TokenConfig config) {
+        this.headerNames = config.isEnableHeaderExtraction() && config.getHeaderNames() != null
+                ? Arrays.stream(config.getHeaderNames()).filter(StringUtils::hasText).toArray(String[]::new)
+                : new String[0];
+        this.parameterName = config.isEnableParameterExtraction() && StringUtils.hasText(config.getParameterName())
+                ? config.getParameterName() : null;
+        this.cookieName = config.isEnableCookieExtraction() && StringUtils.hasText(config.getCookieName())
+                ? config.getCookieName() : null;
+        this.stripBearerPrefix = config.isStripBearerPrefix();
+    }
+
+    @Override
+    public Optional<Token> extract() {
+        return Optional.ofNullable(extractToken());
+    }
+
+    @Override
+    public Token extractToken() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        return extractToken(servletAttributes.getRequest());
+    }
+
+    /**
+     * 从指定请求中提取 token
+     *
+     * @return token，不存在时返回 null
+     */
+    public Token extractToken(HttpServletRequest request) {
+        for (String headerName : headerNames) {
+            String value = normalize(request.getHeader(headerName));
+            if (value != null) {
+                return new SimpleToken(value, false, "header", headerName);
+            }
+        }
+        if (parameterName != null) {
+            String value = normalize(request.getParameter(parameterName));
+            if (value != null) {
+                return new SimpleToken(value, false, "query", parameterName);
+            }
+        }
+        if (cookieName != null) {
+            Cookie[] cookies = request.getCookies();
+            if (cookies != null) {
+                for (Cookie cookie : cookies) {
+                    if (cookieName.equals(cookie.getName())) {
+                        String value = normalize(cookie.getValue());
+                        if (value != null) {
+                            return new SimpleToken(value, false, "cookie", cookieName);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按配置处理提取到的原始值：去掉 "Bearer " 前缀（不区分大小写），空白值返回 null
+     * 响应式提取器使用相同的规则，见 {@link top.mrys.auth.reactive.ConfigurableReactiveTokenExtractor}
+     */
+    public String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (stripBearerPrefix && value.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            int start = BEARER_PREFIX.length();
+            int length = value.length();
+            while (start < length && value.charAt(start) == ' ') {
+                start++;
+            }
+            return start == length ? null : value.substring(start);
+        }
+        return value.isBlank() ? null : value;
+    }
+
+    public String[] getHeaderNames() {
+        return headerNames.clone();
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+}
@@ -0,0 +1,128 @@
+package top.mrys.auth.token;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * 基于 {@code java.lang.ScopedValue} 的认证上下文
+ * <p>
+ * 每个请求通过 {@link #runWith(TokenContext, Runnable)} 绑定一个作用域（Servlet 应用由 {@link top.mrys.auth.interceptor.TokenContextScopeFilter} 完成），
+ * 作用域结束后绑定自动失效，不需要清理，也不会在线程上留下条目，适合大量虚拟线程的部署。
+ * 作用域内派生的结构化并发子任务继承同一个上下文。
+ * <p>
+ * ScopedValue 在 Java 21 中是预览 API，在 Java 25 中正式发布，这里通过 {@link MethodHandle} 访问，
+ * 编译和运行都不需要 --enable-preview。运行时不支持 ScopedValue 时构造方法直接抛出异常。
+ * <p>
+ * ScopedValue 的绑定是不可变的，这里绑定一个可变的槽位，作用域内的 {@link #set(TokenContext)} 修改槽位中的值。
+ * 作用域外调用 {@link #set(TokenContext)} 会抛出 {@link IllegalStateException}。
+ *
+ * @author mrys
+ */
+public class ScopedValueTokenContextStrategy implements TokenContextStrategy {
+
+    private static final MethodHandle WHERE;
+    private static final MethodHandle RUN;
+    private static final MethodHandle IS_BOUND;
+    private static final MethodHandle GET;
+    private static final Object SCOPED_VALUE;
+    private static final Throwable UNAVAILABLE_CAUSE;
+
+    static {
+        MethodHandle where = null;
+        MethodHandle run = null;
+        MethodHandle isBound = null;
+        MethodHandle get = null;
+        Object scopedValue = null;
+        Throwable cause = null;
+        try {
+            Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+            Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            where = lookup.findStatic(scopedValueClass, "where",
+                    MethodType.methodType(carrierClass, scopedValueClass, Object.class));
+            run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class));
+            isBound = lookup.findVirtual(scopedValueClass, "isBound", MethodType.methodType(boolean.class));
+            get = lookup.findVirtual(scopedValueClass, "get", MethodType.methodType(Object.class));
+            scopedValue = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass))
+                    .invoke();
+        } catch (Throwable e) {
+            cause = e;
+        }
+        WHERE = where;
+        RUN = run;
+        IS_BOUND = isBound;
+        GET = get;
+        SCOPED_VALUE = scopedValue;
+        UNAVAILABLE_CAUSE = cause;
+    }
+
+    public ScopedValueTokenContextStrategy() {
+        if (UNAVAILABLE_CAUSE != null) {
+            throw new IllegalStateException("当前 JDK 不支持 ScopedValue，请使用 THREAD_LOCAL 模式", UNAVAILABLE_CAUSE);
+        }
+    }
+
+    /**
+     * 当前 JDK 是否支持 ScopedValue
+     */
+    public static boolean isAvailable() {
+        return UNAVAILABLE_CAUSE == null;
+    }
+
+    @Override
+    public TokenContext get() {
+        Slot slot = currentSlot();
+        return slot == null ? null : slot.context;
+    }
+
+    @Override
+    public void set(TokenContext context) {
+        Slot slot = currentSlot();
+        if (slot == null) {
+            throw new IllegalStateException("当前线程没有绑定认证上下文作用域，请通过 TokenContext.runWith 执行");
+        }
+        slot.context = context;
+    }
+
+    @Override
+    public void clear() {
+        Slot slot = currentSlot();
+        if (slot != null) {
+            slot.context = null;
+        }
+    }
+
+    @Override
+    public void runWith(TokenContext context, Runnable task) {
+        try {
+            RUN.invoke(WHERE.invoke(SCOPED_VALUE, new Slot(context)), task);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Runnable 不会抛出受检异常
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Slot currentSlot() {
+        try {
+            return (boolean) IS_BOUND.invoke(SCOPED_VALUE) ? (Slot) GET.invoke(SCOPED_VALUE) : null;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 作用域内的可变槽位
+     */
+    private static final class Slot {
+        private volatile TokenContext context;
+
+        private Slot(TokenContext context) {
+            this.context = context;
+        }
+    }
+}
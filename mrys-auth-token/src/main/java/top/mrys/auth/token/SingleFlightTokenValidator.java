@@ -0,0 +1,133 @@
+package top.mrys.auth.token;
+
+import org.springframework.util.Assert;
+import top.mrys.auth.exceptions.TokenException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 合并并发验证的 token 验证器
+ * <p>
+ * 包装任意 {@link TokenValidator}，同一个 token 同时只有一个请求调用被包装的验证器，
+ * 其他并发请求等待并共享它的结果（包括验证失败），不会向下游发出重复的查询。
+ * 验证结束后立即移除，不做缓存，需要缓存时与 {@link CachingTokenValidator} 组合使用：
+ * <pre>
+ * new CachingTokenValidator(new SingleFlightTokenValidator(userTokenValidator))
+ * </pre>
+ * 等待基于 {@link CompletableFuture}，不使用 synchronized，虚拟线程等待时不会占用载体线程。
+ *
+ * @author mrys
+ */
+public class SingleFlightTokenValidator implements TokenValidator {
+
+    private final TokenValidator delegate;
+
+    /**
+     * 等待其他请求验证结果的最长时间，超时后自行验证，为 null 时一直等待
+     */
+    private final Duration waitTimeout;
+
+    private final ConcurrentMap<TokenDigest.Key, CompletableFuture<ValidationOutcome>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightTokenValidator(TokenValidator delegate) {
+        this(delegate, null);
+    }
+
+    public SingleFlightTokenValidator(TokenValidator delegate, Duration waitTimeout) {
+        Assert.notNull(delegate, "delegate 不能为空");
+        this.delegate = delegate;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    public boolean support(Token token) {
+        return delegate.support(token);
+    }
+
+    @Override
+    public void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        TokenDigest.Key key = TokenDigest.key(ctx.getToken());
+        if (key == null) {
+            delegate.validate(chain, ctx);
+            return;
+        }
+        CompletableFuture<ValidationOutcome> flight = new CompletableFuture<>();
+        CompletableFuture<ValidationOutcome> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            lead(key, flight, chain, ctx);
+            return;
+        }
+        ValidationOutcome outcome = await(leader);
+        if (outcome == null) {
+            delegate.validate(chain, ctx);
+            return;
+        }
+        outcome.replay(chain, ctx);
+    }
+
+    /**
+     * 由第一个请求执行验证，并把结果交给等待中的请求
+     */
+    private void lead(TokenDigest.Key key, CompletableFuture<ValidationOutcome> flight,
+                      TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        boolean proceeded;
+        try {
+            proceeded = TokenValidatorChain.invoke(delegate, ctx);
+            flight.complete(ValidationOutcome.completed(ctx, proceeded));
+        } catch (TokenException e) {
+            flight.complete(ValidationOutcome.failed(e));
+            throw e;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+        // 后续验证器在结果交出之后执行，它们的异常不影响等待中的请求
+        if (proceeded && chain != null) {
+            chain.validate(ctx);
+        }
+    }
+
+    /**
+     * 等待第一个请求的验证结果
+     *
+     * @return 验证结果，等待超时或线程被中断时返回 null，由调用方自行验证
+     */
+    private ValidationOutcome await(CompletableFuture<ValidationOutcome> leader) {
+        try {
+            return waitTimeout == null ? leader.get() : leader.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public TokenValidator getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 正在验证中的 token 数量
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
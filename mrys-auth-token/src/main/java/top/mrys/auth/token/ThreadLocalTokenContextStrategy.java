@@ -0,0 +1,42 @@
+package top.mrys.auth.token;
+
+/**
+ * 基于 {@link ThreadLocal} 的认证上下文，默认策略
+ * 需要在请求结束后调用 {@link #clear()}，否则线程复用时会读到上一个请求的上下文
+ *
+ * @author mrys
+ */
+public class ThreadLocalTokenContextStrategy implements TokenContextStrategy {
+
+    private static final ThreadLocal<TokenContext> CONTEXT = new ThreadLocal<>();
+
+    @Override
+    public TokenContext get() {
+        return CONTEXT.get();
+    }
+
+    @Override
+    public void set(TokenContext context) {
+        CONTEXT.set(context);
+    }
+
+    @Override
+    public void clear() {
+        CONTEXT.remove();
+    }
+
+    @Override
+    public void runWith(TokenContext context, Runnable task) {
+        TokenContext previous = CONTEXT.get();
+        CONTEXT.set(context);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                CONTEXT.remove();
+            } else {
+                CONTEXT.set(previous);
+            }
+        }
+    }
+}
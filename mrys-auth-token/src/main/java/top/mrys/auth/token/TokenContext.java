@@ -3,29 +3,103 @@ package top.mrys.auth.token;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
 /**
  * 令牌上下文
  * 用于存储当前请求的令牌信息
+ * <p>
+ * 静态方法委托给 {@link TokenContextStrategy}，默认基于 ThreadLocal，
+ * 可通过 mrys.auth.context.mode 切换为 {@link ScopedValueTokenContextStrategy}。
  */
 @Getter
 @Setter
 public class TokenContext {
-    private static final ThreadLocal<TokenContext> context = new ThreadLocal<>();
+    private static volatile TokenContextStrategy strategy = new ThreadLocalTokenContextStrategy();
 
     private Token token;
     private UserInfo userInfo;
 
     public static TokenContext get() {
-        return context.get();
+        return strategy.get();
     }
 
     public static void set(TokenContext tokenContext) {
-        context.set(tokenContext);
+        strategy.set(tokenContext);
     }
 
     public static void clear() {
-        context.remove();
+        strategy.clear();
+    }
+
+    /**
+     * 以 tokenContext 为当前上下文执行任务，结束后恢复原来的上下文
+     */
+    public static void runWith(TokenContext tokenContext, Runnable task) {
+        strategy.runWith(tokenContext, task);
+    }
+
+    /**
+     * 以 tokenContext 为当前上下文执行任务并返回结果，结束后恢复原来的上下文
+     */
+    public static <T> T callWith(TokenContext tokenContext, Supplier<T> task) {
+        Object[] result = new Object[1];
+        strategy.runWith(tokenContext, () -> result[0] = task.get());
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * 包装任务，使其在执行时使用提交时的认证上下文
+     * 用于把任务交给其他线程执行（线程池、CompletableFuture 等），执行结束后恢复执行线程原来的上下文
+     */
+    public static Runnable wrap(Runnable task) {
+        TokenContext captured = get();
+        return () -> runWith(captured, task);
+    }
+
+    /**
+     * 包装任务，使其在执行时使用提交时的认证上下文
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        TokenContext captured = get();
+        return () -> callWith(captured, task);
+    }
+
+    /**
+     * 包装任务，使其在执行时使用提交时的认证上下文
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        TokenContext captured = get();
+        return () -> {
+            Object[] result = new Object[1];
+            Exception[] failure = new Exception[1];
+            runWith(captured, () -> {
+                try {
+                    result[0] = task.call();
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            @SuppressWarnings("unchecked")
+            T value = (T) result[0];
+            return value;
+        };
+    }
+
+    public static TokenContextStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 设置上下文存储策略，应在应用启动时、处理请求之前设置
+     */
+    public static void setStrategy(TokenContextStrategy tokenContextStrategy) {
+        strategy = tokenContextStrategy;
     }
 } 
\ No newline at end of file
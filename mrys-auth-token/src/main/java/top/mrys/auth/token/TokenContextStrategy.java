@@ -0,0 +1,37 @@
+package top.mrys.auth.token;
+
+/**
+ * 认证上下文的存储策略
+ * <p>
+ * {@link TokenContext#get()}、{@link TokenContext#set(TokenContext)} 等静态方法委托给当前策略，
+ * 切换策略不影响 {@link top.mrys.auth.spel.AuthSpelFunctions} 等调用方。
+ *
+ * @author mrys
+ * @see ThreadLocalTokenContextStrategy
+ * @see ScopedValueTokenContextStrategy
+ */
+public interface TokenContextStrategy {
+
+    /**
+     * 获取当前的认证上下文
+     *
+     * @return 认证上下文，没有时返回 null
+     */
+    TokenContext get();
+
+    /**
+     * 设置当前的认证上下文
+     */
+    void set(TokenContext context);
+
+    /**
+     * 清除当前的认证上下文
+     */
+    void clear();
+
+    /**
+     * 在新的作用域中执行任务
+     * 作用域内可以读取到 context，任务中的 set、clear 不影响作用域外，任务结束后恢复原来的上下文
+     */
+    void runWith(TokenContext context, Runnable task);
+}
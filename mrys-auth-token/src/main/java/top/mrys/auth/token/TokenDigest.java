@@ -0,0 +1,125 @@
+package top.mrys.auth.token;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * token 摘要
+ * <p>
+ * 缓存等需要以 token 为键的场景使用 SHA-256 摘要代替原文，避免在内存中长期保存 token 明文。
+ * <p>
+ * 进程内的缓存使用 {@link #key(Token)} 得到的 {@link Key} 作为键，直接保存摘要的 256 位，不做 Base64 编码；
+ * 需要保存到外部或作为标识使用的场景（会话、吊销列表等）使用 {@link #of(Token)} 得到的字符串。
+ * 计算摘要时克隆预先创建好的 {@link MessageDigest}，不重复查找算法提供者。
+ *
+ * @author mrys
+ */
+public final class TokenDigest {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final MessageDigest PROTOTYPE;
+    private static final boolean CLONEABLE;
+
+    static {
+        PROTOTYPE = newInstance();
+        boolean cloneable;
+        try {
+            PROTOTYPE.clone();
+            cloneable = true;
+        } catch (CloneNotSupportedException e) {
+            cloneable = false;
+        }
+        CLONEABLE = cloneable;
+    }
+
+    private TokenDigest() {
+    }
+
+    /**
+     * 计算 token 的摘要
+     *
+     * @return 摘要，token 没有可用的原文（如账号密码 token）时返回 null
+     */
+    public static String of(Token token) {
+        if (token instanceof SimpleToken simpleToken && simpleToken.getToken() != null) {
+            return of(simpleToken.getToken());
+        }
+        return null;
+    }
+
+    /**
+     * 计算 token 原文的摘要
+     */
+    public static String of(String value) {
+        return ENCODER.encodeToString(digest(value));
+    }
+
+    /**
+     * 计算 token 的缓存键
+     *
+     * @return 缓存键，token 没有可用的原文（如账号密码 token）时返回 null
+     */
+    public static Key key(Token token) {
+        if (token instanceof SimpleToken simpleToken && simpleToken.getToken() != null) {
+            return key(simpleToken.getToken());
+        }
+        return null;
+    }
+
+    /**
+     * 计算 token 原文的缓存键
+     */
+    public static Key key(String value) {
+        byte[] digest = digest(value);
+        return new Key((long) LONGS.get(digest, 0), (long) LONGS.get(digest, 8),
+                (long) LONGS.get(digest, 16), (long) LONGS.get(digest, 24));
+    }
+
+    private static byte[] digest(String value) {
+        return newDigest().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        if (CLONEABLE) {
+            try {
+                return (MessageDigest) PROTOTYPE.clone();
+            } catch (CloneNotSupportedException e) {
+                // 启动时已检查过
+            }
+        }
+        return newInstance();
+    }
+
+    private static MessageDigest newInstance() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 所有 JDK 都必须提供 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * SHA-256 摘要的 256 位，用作进程内缓存的键
+     */
+    public record Key(long h0, long h1, long h2, long h3) {
+
+        @Override
+        public int hashCode() {
+            // 摘要的各位已经均匀分布，取前 32 位即可
+            return (int) h0;
+        }
+
+        @Override
+        public String toString() {
+            return "TokenDigest.Key[" + Long.toHexString(h0) + "...]";
+        }
+    }
+}
@@ -9,4 +9,13 @@ import java.util.Optional;
 public interface TokenExtractor {
 
     Optional<Token> extract();
+
+    /**
+     * 提取 token，认证拦截器通过此方法调用，不需要包装为 Optional 的实现可以覆盖此方法
+     *
+     * @return token，不存在时返回 null
+     */
+    default Token extractToken() {
+        return extract().orElse(null);
+    }
 }
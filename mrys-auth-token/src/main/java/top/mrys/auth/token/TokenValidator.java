@@ -18,6 +18,8 @@ public interface TokenValidator {
 
     /**
      * 验证 token
+     * <p>
+     * 验证通过后调用 chain.validate(ctx) 继续执行后续验证器，不调用则验证链到此结束
      */
     void validate(TokenValidatorChain chain, TokenContext ctx) throws TokenException;
 }
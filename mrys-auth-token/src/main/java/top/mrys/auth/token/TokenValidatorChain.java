@@ -4,45 +4,134 @@ import top.mrys.auth.exceptions.TokenException;
 
 import java.util.List;
 
-import org.springframework.lang.Nullable;
-
 /**
+ * token 验证器链
+ * <p>
+ * 验证器通过调用传入的 chain 的 {@link #validate(TokenContext)} 执行后续验证器，调用返回时后续验证器已经执行完毕，
+ * 所以验证器可以在其之后做后续处理；不调用则链在该验证器处终止。
+ * <p>
+ * {@link #create(List)} 创建的链共享一个验证器数组，每个位置预先创建好对应的链节点（游标），
+ * 执行过程中不分配对象，游标状态也不保存在 {@link TokenContext} 中，同一个上下文可以嵌套执行其他验证链。
+ * <p>
+ * 为了保留验证器在后续验证器之后做处理的能力，链是逐层调用的，栈深度随执行的验证器数量增长，
+ * 不能做到与验证器数量无关；验证器数量通常只有几个，不会成为问题。
+ *
  * @author mrys
  */
 public class TokenValidatorChain {
-    @Nullable
-    private TokenValidatorChain next;
 
-    private final TokenValidator validator;
+    /**
+     * 链尾，调用 validate 不做任何事
+     */
+    private static final TokenValidatorChain END = new TokenValidatorChain();
+
+    /**
+     * 每个线程复用的 {@link Probe}
+     */
+    private static final ThreadLocal<Probe> PROBE = ThreadLocal.withInitial(Probe::new);
+
+    private final TokenValidator[] validators;
+
+    /**
+     * 本节点要执行的第一个验证器在数组中的位置
+     */
+    private final int index;
+
+    /**
+     * 各位置的链节点，cursors[i] 从 validators[i] 开始执行，cursors[validators.length] 为链尾
+     */
+    private final TokenValidatorChain[] cursors;
 
     public TokenValidatorChain(TokenValidator validator, TokenValidatorChain next) {
-        this.validator = validator;
-        this.next = next;
+        this.validators = new TokenValidator[]{validator};
+        this.index = 0;
+        this.cursors = new TokenValidatorChain[]{this, next == null ? END : next};
+    }
+
+    private TokenValidatorChain() {
+        this.validators = new TokenValidator[0];
+        this.index = 0;
+        this.cursors = new TokenValidatorChain[]{this};
+    }
+
+    /**
+     * 与链尾共用空数组的节点，用于 {@link Probe}
+     */
+    private TokenValidatorChain(TokenValidatorChain end) {
+        this.validators = end.validators;
+        this.index = 0;
+        this.cursors = end.cursors;
+    }
+
+    private TokenValidatorChain(TokenValidator[] validators, int index, TokenValidatorChain[] cursors) {
+        this.validators = validators;
+        this.index = index;
+        this.cursors = cursors;
     }
 
     public static TokenValidatorChain create(List<TokenValidator> validators) {
-        TokenValidatorChain chain = new TokenValidatorChain(new EmptyTokenValidator(), null);
-        TokenValidatorChain current = chain;
+        TokenValidator[] array = new TokenValidator[validators.size() + 1];
+        array[0] = new EmptyTokenValidator();
         for (int i = 0; i < validators.size(); i++) {
-            TokenValidator validator = validators.get(i);
-            current.next = new TokenValidatorChain(validator, null);
-            current = current.next;
+            array[i + 1] = validators.get(i);
         }
-        return chain;
+        TokenValidatorChain[] cursors = new TokenValidatorChain[array.length + 1];
+        cursors[array.length] = END;
+        for (int i = 0; i < array.length; i++) {
+            cursors[i] = new TokenValidatorChain(array, i, cursors);
+        }
+        return cursors[0];
     }
 
     /**
-     * 执行下一个验证器
+     * 执行下一个支持当前 token 的验证器，后续验证器由它通过 chain 继续执行
      * @param ctx
      * @throws TokenException
      */
     public void validate(TokenContext ctx) throws TokenException {
-        if (validator.support(ctx.getToken())) {
-            validator.validate(next, ctx);
-        } else {
-            if (next != null) {
-                next.validate(ctx);
+        for (int i = index; i < validators.length; i++) {
+            TokenValidator validator = validators[i];
+            if (validator.support(ctx.getToken())) {
+                validator.validate(cursors[i + 1], ctx);
+                return;
             }
         }
     }
+
+    /**
+     * 单独执行一个验证器，不执行后续验证器
+     * 用于需要先记录验证器自身结果的包装器，验证器调用 chain 之后的处理会在此方法返回前执行
+     * <p>
+     * 传给验证器的链是当前线程复用的 {@link Probe}，不分配对象；
+     * 验证器内部嵌套调用本方法时，调用前后会保存、恢复外层的记录。
+     *
+     * @return 验证器是否调用了 chain 继续执行
+     */
+    public static boolean invoke(TokenValidator validator, TokenContext ctx) throws TokenException {
+        Probe probe = PROBE.get();
+        boolean outer = probe.proceeded;
+        probe.proceeded = false;
+        try {
+            validator.validate(probe, ctx);
+            return probe.proceeded;
+        } finally {
+            probe.proceeded = outer;
+        }
+    }
+
+    /**
+     * 只记录是否被调用的链
+     */
+    private static final class Probe extends TokenValidatorChain {
+        private boolean proceeded;
+
+        private Probe() {
+            super(END);
+        }
+
+        @Override
+        public void validate(TokenContext ctx) {
+            proceeded = true;
+        }
+    }
 }
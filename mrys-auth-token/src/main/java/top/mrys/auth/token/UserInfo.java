@@ -30,4 +30,27 @@ public class UserInfo {
 
     private Set<String> permissions = Collections.emptySet();
 
+    /**
+     * 将角色和权限转换为位图集合 {@link AuthoritySet}
+     * 建议在校验器加载完用户信息后调用，之后的角色、权限检查按位运算完成，同时减少每个用户的内存占用
+     * <p>
+     * 名称注册表达到容量（{@link AuthorityRegistry#DEFAULT_MAX_SIZE}）后无法驻留新名称，此时保留原来的集合，
+     * 检查结果不变，只是不再按位运算。
+     *
+     * @return 当前对象
+     */
+    public UserInfo compact() {
+        AuthoritySet compactRoles = AuthoritySet.tryOf(AuthorityRegistry.ROLES,
+                roles == null ? Collections.emptySet() : roles);
+        if (compactRoles != null) {
+            this.roles = compactRoles;
+        }
+        AuthoritySet compactPermissions = AuthoritySet.tryOf(AuthorityRegistry.PERMISSIONS,
+                permissions == null ? Collections.emptySet() : permissions);
+        if (compactPermissions != null) {
+            this.permissions = compactPermissions;
+        }
+        return this;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package top.mrys.auth.token;
+
+import top.mrys.auth.exceptions.TokenException;
+
+/**
+ * 一次验证的结果，可以在之后的请求中重放
+ *
+ * @author mrys
+ */
+final class ValidationOutcome {
+
+    private final UserInfo userInfo;
+    private final boolean valid;
+    private final boolean proceeded;
+    private final String failureMessage;
+
+    private ValidationOutcome(UserInfo userInfo, boolean valid, boolean proceeded, String failureMessage) {
+        this.userInfo = userInfo;
+        this.valid = valid;
+        this.proceeded = proceeded;
+        this.failureMessage = failureMessage;
+    }
+
+    /**
+     * 记录验证器正常返回后的结果
+     * 验证器可能修改传入的上下文，也可能像示例中那样设置新的线程上下文，两种方式都支持
+     *
+     * @param proceeded 验证器是否调用了 chain 继续执行
+     */
+    static ValidationOutcome completed(TokenContext ctx, boolean proceeded) {
+        TokenContext current = TokenContext.get();
+        UserInfo userInfo = ctx.getUserInfo();
+        if (current != null && current != ctx && current.getUserInfo() != null) {
+            userInfo = current.getUserInfo();
+        }
+        return new ValidationOutcome(userInfo, ctx.getToken().isValid(), proceeded, null);
+    }
+
+    /**
+     * 记录验证器抛出的异常
+     */
+    static ValidationOutcome failed(TokenException e) {
+        return new ValidationOutcome(null, false, false, e.getMessage());
+    }
+
+    boolean isSuccessful() {
+        return failureMessage == null && valid;
+    }
+
+    /**
+     * 将结果应用到当前上下文
+     * 验证通过且当时继续执行了验证链，则同样继续执行
+     */
+    void replay(TokenValidatorChain chain, TokenContext ctx) throws TokenException {
+        if (failureMessage != null) {
+            throw new TokenException(ctx.getToken(), failureMessage);
+        }
+        ctx.getToken().setValid(valid);
+        if (userInfo != null) {
+            ctx.setUserInfo(userInfo);
+        }
+        if (proceeded && chain != null) {
+            chain.validate(ctx);
+        }
+    }
+}
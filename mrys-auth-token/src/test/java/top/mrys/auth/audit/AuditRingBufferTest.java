@@ -0,0 +1,134 @@
+package top.mrys.auth.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link AuditRingBuffer} 测试
+ *
+ * @author mrys
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertThat(new AuditRingBuffer(3).capacity()).isEqualTo(4);
+        assertThat(new AuditRingBuffer(8).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer(9).capacity()).isEqualTo(16);
+        assertThat(new AuditRingBuffer(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void claimFailsWhenFullUntilDrained() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            long sequence = buffer.claim();
+            assertThat(sequence).isEqualTo(i);
+            buffer.get(sequence).message = "m" + i;
+            buffer.publish(sequence);
+        }
+        assertThat(buffer.claim()).isEqualTo(-1L);
+        assertThat(buffer.size()).isEqualTo(4);
+
+        StringBuilder drained = new StringBuilder();
+        assertThat(buffer.drain(event -> drained.append(event.getMessage()), 3)).isEqualTo(3);
+        assertThat(drained).hasToString("m0m1m2");
+        assertThat(buffer.size()).isEqualTo(1);
+        // 读取后事件被清空，槽可以再次领取
+        assertThat(buffer.get(0).getMessage()).isNull();
+        assertThat(buffer.claim()).isEqualTo(4L);
+    }
+
+    @Test
+    void drainStopsAtUnpublishedSequence() {
+        AuditRingBuffer buffer = new AuditRingBuffer(8);
+        long first = buffer.claim();
+        long second = buffer.claim();
+        buffer.get(second).message = "second";
+        buffer.publish(second);
+
+        // 第一个序号尚未发布，后面已发布的事件也不能读取
+        assertThat(buffer.drain(event -> { }, 8)).isZero();
+
+        buffer.get(first).message = "first";
+        buffer.publish(first);
+        StringBuilder drained = new StringBuilder();
+        assertThat(buffer.drain(event -> drained.append(event.getMessage()).append(' '), 8)).isEqualTo(2);
+        assertThat(drained).hasToString("first second ");
+    }
+
+    @Test
+    void multipleProducersWithConcurrentDrain() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        int producers = 8;
+        int eventsPerProducer = 20_000;
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1L);
+        long[] received = new long[1];
+        AtomicBoolean producing = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> consumer = executor.submit(() -> {
+                start.await();
+                while (producing.get() || buffer.size() > 0) {
+                    int count = buffer.drain(event -> {
+                        int producer = Integer.parseInt(event.getUserId());
+                        // 同一个生产者的事件按发布顺序读取
+                        if (event.getTimestamp() != lastSeen[producer] + 1) {
+                            throw new AssertionError("生产者 " + producer + " 的事件乱序: " + event.getTimestamp());
+                        }
+                        lastSeen[producer] = event.getTimestamp();
+                        received[0]++;
+                    }, 16);
+                    if (count == 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+            Future<?>[] futures = new Future<?>[producers];
+            for (int p = 0; p < producers; p++) {
+                String producerId = Integer.toString(p);
+                futures[p] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        long sequence;
+                        while ((sequence = buffer.claim()) < 0) {
+                            LockSupport.parkNanos(1_000L);
+                        }
+                        AuditEvent event = buffer.get(sequence);
+                        event.userId = producerId;
+                        event.timestamp = i;
+                        buffer.publish(sequence);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            producing.set(false);
+            consumer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(received[0]).isEqualTo((long) producers * eventsPerProducer);
+        for (long last : lastSeen) {
+            assertThat(last).isEqualTo(eventsPerProducer - 1);
+        }
+        assertThat(buffer.size()).isZero();
+    }
+}
@@ -0,0 +1,175 @@
+package top.mrys.auth.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link SegmentedLruCache} 测试
+ *
+ * @author mrys
+ */
+class SegmentedLruCacheTest {
+
+    @Test
+    void evictsBeyondMaximumSize() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(10);
+        for (int i = 0; i < 25; i++) {
+            cache.put(i, "v" + i);
+        }
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.getEvictionCount()).isEqualTo(15);
+        // 都只访问过一次，按插入顺序淘汰
+        assertThat(cache.get(0)).isNull();
+        assertThat(cache.get(24)).isEqualTo("v24");
+    }
+
+    @Test
+    void frequentlyAccessedEntriesSurviveScan() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(10);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, "hot" + i);
+            cache.get(i);
+        }
+        // 只访问一次的条目扫过整个缓存
+        for (int i = 100; i < 200; i++) {
+            cache.put(i, "cold" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.get(i)).isEqualTo("hot" + i);
+        }
+        assertThat(cache.size()).isEqualTo(10);
+    }
+
+    @Test
+    void protectedSegmentOverflowDemotesInsteadOfEvicting() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(5);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, "v" + i);
+            cache.get(i);
+        }
+        // 保护段容量为 4，第一个晋升的条目被降级回试用段，但仍在缓存中
+        assertThat(cache.size()).isEqualTo(5);
+        assertThat(cache.getEvictionCount()).isZero();
+        cache.put(5, "v5");
+        assertThat(cache.get(0)).isNull();
+        assertThat(cache.get(5)).isEqualTo("v5");
+    }
+
+    @Test
+    void expiredEntriesAreRemovedOnRead() throws InterruptedException {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10);
+        cache.put("short", "a", Duration.ofMillis(20));
+        cache.put("forever", "b");
+        assertThat(cache.get("short")).isEqualTo("a");
+        Thread.sleep(50);
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("forever")).isEqualTo("b");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void putReplacesValueAndExpiry() throws InterruptedException {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10);
+        cache.put("k", "a", Duration.ofMillis(20));
+        cache.put("k", "b");
+        Thread.sleep(50);
+        assertThat(cache.get("k")).isEqualTo("b");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderRunsOnlyOnMiss() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get("k", key -> key + loads.incrementAndGet())).isEqualTo("k1");
+        assertThat(cache.get("k", key -> key + loads.incrementAndGet())).isEqualTo("k1");
+        assertThat(cache.get("none", key -> null)).isNull();
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAndStatistics() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10);
+        assertThat(cache.getHitRate()).isEqualTo(1.0);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.get("missing");
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+        // 清空后仍可正常使用
+        cache.put("c", "3");
+        cache.get("c");
+        assertThat(cache.get("c")).isEqualTo("3");
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> new SegmentedLruCache<>(0)).isInstanceOf(IllegalArgumentException.class);
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(1);
+        assertThatThrownBy(() -> cache.put("k", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cache.put("k", "v", Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentAccessKeepsSizeBounded() throws Exception {
+        int maximumSize = 64;
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(maximumSize);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        int key = random.nextInt(256);
+                        switch (random.nextInt(10)) {
+                            case 0 -> cache.invalidate(key);
+                            case 1, 2, 3 -> cache.put(key, key);
+                            default -> {
+                                Integer value = cache.get(key);
+                                if (value != null && value != key) {
+                                    throw new AssertionError("键 " + key + " 的值为 " + value);
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(maximumSize);
+        // 链表与映射保持一致：填满后再写入会按容量淘汰
+        for (int i = 1000; i < 1000 + maximumSize * 2; i++) {
+            cache.put(i, i);
+        }
+        assertThat(cache.size()).isEqualTo(maximumSize);
+    }
+}
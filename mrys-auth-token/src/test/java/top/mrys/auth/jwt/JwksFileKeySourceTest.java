@@ -0,0 +1,187 @@
+package top.mrys.auth.jwt;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.mrys.auth.exceptions.TokenException;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link JwksFileKeySource} 测试
+ *
+ * @author mrys
+ */
+class JwksFileKeySourceTest {
+
+    private static final byte[] SECRET_1 = "first-secret-0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SECRET_2 = "second-secret-0123456789abcdefghi".getBytes(StandardCharsets.US_ASCII);
+
+    private static KeyPair rsaKeyPair;
+    private static KeyPair ecKeyPair;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        rsaKeyPair = rsa.generateKeyPair();
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ec.generateKeyPair();
+    }
+
+    @Test
+    void parsesSupportedKeyTypes() throws IOException {
+        Path file = write("""
+                {"keys": [%s, %s, %s,
+                  {"kty": "oct", "kid": "enc", "use": "enc", "k": "%s"},
+                  {"kty": "OKP", "kid": "ed", "crv": "Ed25519", "x": "AAAA"}]}
+                """.formatted(oct("hs", SECRET_1), rsa("rs"), ec("es"), JwtSigner.base64(SECRET_2)), 0);
+        JwksFileKeySource source = new JwksFileKeySource(file);
+
+        assertThat(source.getKeyCount()).isEqualTo(3);
+        assertThat(source.getKey("hs").getAlgorithm()).isEqualTo(JwtAlgorithm.HS256);
+        assertThat(source.getKey("rs").getAlgorithm()).isEqualTo(JwtAlgorithm.RS256);
+        assertThat(source.getKey("es").getAlgorithm()).isEqualTo(JwtAlgorithm.ES256);
+        assertThat(source.getKey("enc")).isNull();
+
+        JwtTokenValidator validator = new JwtTokenValidator(source);
+        Map<String, Object> claims = Map.of("sub", "42", "exp", Instant.now().getEpochSecond() + 3600);
+        assertThat(JwtTokenValidatorTest.validate(validator, JwtSigner.hs256("hs", SECRET_1, claims))
+                .getToken().isValid()).isTrue();
+        assertThat(JwtTokenValidatorTest.validate(validator, JwtSigner.rs256("rs", rsaKeyPair.getPrivate(), claims))
+                .getToken().isValid()).isTrue();
+        assertThat(JwtTokenValidatorTest.validate(validator, JwtSigner.es256("es", ecKeyPair.getPrivate(), claims))
+                .getToken().isValid()).isTrue();
+    }
+
+    @Test
+    void failsFastWhenInitialLoadFails() throws IOException {
+        Path file = write("{\"keys\": ", 0);
+
+        assertThatThrownBy(() -> new JwksFileKeySource(file)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new JwksFileKeySource(directory.resolve("missing.json")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void reloadsChangedFile() throws IOException {
+        Path file = write(keys(oct("k1", SECRET_1)), 0);
+        JwksFileKeySource source = new JwksFileKeySource(file, Duration.ZERO);
+        JwtTokenValidator validator = new JwtTokenValidator(source).enableVerificationCache(16, Duration.ofMinutes(5));
+        Map<String, Object> claims = Map.of("sub", "42", "exp", Instant.now().getEpochSecond() + 3600);
+        String first = JwtSigner.hs256("k1", SECRET_1, claims);
+        String second = JwtSigner.hs256("k2", SECRET_2, claims);
+
+        assertThat(JwtTokenValidatorTest.validate(validator, first).getToken().isValid()).isTrue();
+        long generation = source.getGeneration();
+
+        // 轮换密钥：k1 下线，k2 上线
+        write(keys(oct("k2", SECRET_2)), 10);
+        assertThat(source.getGeneration()).isEqualTo(generation + 1);
+        assertThat(JwtTokenValidatorTest.validate(validator, second).getToken().isValid()).isTrue();
+        // 缓存的验证结果随密钥版本失效，旧密钥签发的 token 不再通过
+        assertThatThrownBy(() -> JwtTokenValidatorTest.validate(validator, first))
+                .isInstanceOf(TokenException.class)
+                .hasMessage("找不到 token 的验证密钥");
+    }
+
+    @Test
+    void keepsPreviousKeysWhenReloadFails() throws IOException {
+        Path file = write(keys(oct("k1", SECRET_1)), 0);
+        JwksFileKeySource source = new JwksFileKeySource(file, Duration.ZERO);
+        long generation = source.getGeneration();
+
+        // 写入一半的文件
+        write("{\"keys\": [" + oct("k2", SECRET_2), 10);
+        assertThat(source.getKey("k1")).isNotNull();
+        assertThat(source.getKey("k2")).isNull();
+        assertThat(source.getGeneration()).isEqualTo(generation);
+
+        // 没有 keys 数组
+        write("{}", 20);
+        assertThat(source.getKey("k1")).isNotNull();
+        assertThat(source.getGeneration()).isEqualTo(generation);
+
+        // 文件被删除
+        Files.delete(file);
+        assertThat(source.getKey("k1")).isNotNull();
+
+        // 修复后重新加载
+        write(keys(oct("k2", SECRET_2)), 30);
+        assertThat(source.getKey("k2")).isNotNull();
+        assertThat(source.getKey("k1")).isNull();
+        assertThat(source.getGeneration()).isEqualTo(generation + 1);
+    }
+
+    @Test
+    void doesNotReloadBeforeCheckInterval() throws IOException {
+        Path file = write(keys(oct("k1", SECRET_1)), 0);
+        JwksFileKeySource source = new JwksFileKeySource(file, Duration.ofHours(1));
+
+        write(keys(oct("k2", SECRET_2)), 10);
+        assertThat(source.getKey("k1")).isNotNull();
+        assertThat(source.getKey("k2")).isNull();
+    }
+
+    /**
+     * 写入 JWKS 文件，修改时间设为固定时间加 offsetSeconds，避免文件系统时间精度导致的误判
+     */
+    private Path write(String content, int offsetSeconds) throws IOException {
+        Path file = directory.resolve("jwks.json");
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(offsetSeconds)));
+        return file;
+    }
+
+    private static String keys(String... jwks) {
+        return "{\"keys\": [" + String.join(",", jwks) + "]}";
+    }
+
+    private static String oct(String keyId, byte[] secret) {
+        return "{\"kty\": \"oct\", \"kid\": \"%s\", \"k\": \"%s\"}".formatted(keyId, JwtSigner.base64(secret));
+    }
+
+    private static String rsa(String keyId) {
+        RSAPublicKey key = (RSAPublicKey) rsaKeyPair.getPublic();
+        return "{\"kty\": \"RSA\", \"kid\": \"%s\", \"use\": \"sig\", \"n\": \"%s\", \"e\": \"%s\"}"
+                .formatted(keyId, unsigned(key.getModulus()), unsigned(key.getPublicExponent()));
+    }
+
+    private static String ec(String keyId) {
+        ECPublicKey key = (ECPublicKey) ecKeyPair.getPublic();
+        return "{\"kty\": \"EC\", \"kid\": \"%s\", \"crv\": \"P-256\", \"x\": \"%s\", \"y\": \"%s\"}"
+                .formatted(keyId, unsigned(key.getW().getAffineX()), unsigned(key.getW().getAffineY()));
+    }
+
+    /**
+     * JWK 中的整数为无符号大端字节
+     */
+    private static String unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return JwtSigner.base64(bytes);
+    }
+}
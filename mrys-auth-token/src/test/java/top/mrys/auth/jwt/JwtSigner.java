@@ -0,0 +1,87 @@
+package top.mrys.auth.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 测试用的 JWT 签发工具
+ *
+ * @author mrys
+ */
+final class JwtSigner {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private JwtSigner() {
+    }
+
+    static String hs256(String keyId, byte[] secret, Map<String, Object> claims) {
+        String content = content("HS256", keyId, claims);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return content + "." + ENCODER.encodeToString(mac.doFinal(content.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String rs256(String keyId, PrivateKey privateKey, Map<String, Object> claims) {
+        return sign("RS256", keyId, "SHA256withRSA", privateKey, claims);
+    }
+
+    static String es256(String keyId, PrivateKey privateKey, Map<String, Object> claims) {
+        return sign("ES256", keyId, "SHA256withECDSAinP1363Format", privateKey, claims);
+    }
+
+    /**
+     * 使用指定的 JCA 算法签名，头部的 alg 为 alg
+     */
+    static String sign(String alg, String keyId, String jcaName, PrivateKey privateKey, Map<String, Object> claims) {
+        String content = content(alg, keyId, claims);
+        try {
+            Signature signature = Signature.getInstance(jcaName);
+            signature.initSign(privateKey);
+            signature.update(content.getBytes(StandardCharsets.US_ASCII));
+            return content + "." + ENCODER.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 未签名的 header.payload
+     */
+    static String content(String alg, String keyId, Map<String, Object> claims) {
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", alg);
+        header.put("typ", "JWT");
+        if (keyId != null) {
+            header.put("kid", keyId);
+        }
+        return encode(header) + "." + encode(claims);
+    }
+
+    static String encode(Map<String, Object> value) {
+        try {
+            return ENCODER.encodeToString(OBJECT_MAPPER.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String base64(byte[] value) {
+        return ENCODER.encodeToString(value);
+    }
+}
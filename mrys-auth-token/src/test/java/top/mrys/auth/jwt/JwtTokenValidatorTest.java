@@ -0,0 +1,267 @@
+package top.mrys.auth.jwt;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link JwtTokenValidator} 测试
+ *
+ * @author mrys
+ */
+class JwtTokenValidatorTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC);
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static KeyPair rsaKeyPair;
+    private static KeyPair ecKeyPair;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        rsaKeyPair = rsa.generateKeyPair();
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ec.generateKeyPair();
+    }
+
+    @Test
+    void acceptsHs256() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET));
+        TokenContext ctx = validate(validator, JwtSigner.hs256("hs", SECRET, claims()));
+
+        assertThat(ctx.getToken()).isInstanceOf(JwtToken.class);
+        assertThat(ctx.getToken().isValid()).isTrue();
+        assertThat(((JwtToken) ctx.getToken()).getKeyId()).isEqualTo("hs");
+        assertThat(ctx.getUserInfo().getUserId()).isEqualTo("42");
+        assertThat(ctx.getUserInfo().getUsername()).isEqualTo("alice");
+        assertThat(ctx.getUserInfo().getRoles()).containsExactlyInAnyOrder("admin", "user");
+        assertThat(ctx.getUserInfo().getPermissions()).containsExactlyInAnyOrder("order:read", "order:write");
+    }
+
+    @Test
+    void acceptsRs256() {
+        JwtTokenValidator validator = validator(JwtKey.rsa("rs", (RSAPublicKey) rsaKeyPair.getPublic()));
+        TokenContext ctx = validate(validator, JwtSigner.rs256("rs", rsaKeyPair.getPrivate(), claims()));
+
+        assertThat(ctx.getToken().isValid()).isTrue();
+        assertThat(ctx.getUserInfo().getUserId()).isEqualTo("42");
+    }
+
+    @Test
+    void acceptsEs256InP1363Format() {
+        JwtTokenValidator validator = validator(JwtKey.ec("es", (ECPublicKey) ecKeyPair.getPublic()));
+        String jwt = JwtSigner.es256("es", ecKeyPair.getPrivate(), claims());
+        assertThat(signatureLength(jwt)).isEqualTo(64);
+
+        TokenContext ctx = validate(validator, jwt);
+        assertThat(ctx.getToken().isValid()).isTrue();
+        assertThat(ctx.getUserInfo().getUserId()).isEqualTo("42");
+    }
+
+    @Test
+    void rejectsEs256InDerFormat() {
+        JwtTokenValidator validator = validator(JwtKey.ec("es", (ECPublicKey) ecKeyPair.getPublic()));
+        String jwt = JwtSigner.sign("ES256", "es", "SHA256withECDSA", ecKeyPair.getPrivate(), claims());
+
+        assertRejected(validator, jwt, "token 签名无效");
+    }
+
+    @Test
+    void acceptsBearerPrefix() {
+        JwtTokenValidator validator = validator(JwtKey.hmac(null, SECRET));
+        String jwt = JwtSigner.hs256(null, SECRET, claims());
+
+        assertThat(validator.support(new SimpleToken("Bearer " + jwt, false, "header", "Authorization"))).isTrue();
+        assertThat(validate(validator, "Bearer " + jwt).getToken().isValid()).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET));
+        String jwt = JwtSigner.hs256("hs", SECRET, claims());
+        Map<String, Object> forged = claims();
+        forged.put("sub", "1");
+        String[] parts = jwt.split("\\.");
+        String tampered = parts[0] + "." + JwtSigner.encode(forged) + "." + parts[2];
+
+        assertRejected(validator, tampered, "token 签名无效");
+    }
+
+    @Test
+    void rejectsHmacSignedWithRsaPublicKey() {
+        // 经典的算法混淆攻击：用公开的 RSA 公钥作为 HMAC 密钥签名
+        JwtTokenValidator validator = validator(JwtKey.rsa("rs", (RSAPublicKey) rsaKeyPair.getPublic()));
+        String jwt = JwtSigner.hs256("rs", rsaKeyPair.getPublic().getEncoded(), claims());
+
+        assertRejected(validator, jwt, "找不到 token 的验证密钥");
+    }
+
+    @Test
+    void rejectsAlgorithmThatDoesNotMatchKey() {
+        JwtTokenValidator validator = validator(JwtKey.ec("k", (ECPublicKey) ecKeyPair.getPublic()));
+        String jwt = JwtSigner.rs256("k", rsaKeyPair.getPrivate(), claims());
+
+        assertRejected(validator, jwt, "找不到 token 的验证密钥");
+    }
+
+    @Test
+    void rejectsNoneAlgorithm() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET));
+        String content = JwtSigner.content("none", "hs", claims());
+
+        assertRejected(validator, content + ".", "不支持的 token 签名算法");
+        assertRejected(validator, content + ".c2ln", "不支持的 token 签名算法");
+        // 大小写变体同样不接受
+        assertRejected(validator, JwtSigner.content("None", "hs", claims()) + ".", "不支持的 token 签名算法");
+    }
+
+    @Test
+    void rejectsUnknownKeyId() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET));
+
+        assertRejected(validator, JwtSigner.hs256("other", SECRET, claims()), "找不到 token 的验证密钥");
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET));
+
+        assertRejected(validator, "e30.!!!.c2ln", "token 格式无效");
+    }
+
+    @Test
+    void expirationHonoursClockSkew() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET)).setClockSkew(Duration.ofSeconds(60));
+
+        Map<String, Object> withinSkew = claims();
+        withinSkew.put("exp", NOW - 59);
+        assertThat(validate(validator, JwtSigner.hs256("hs", SECRET, withinSkew)).getToken().isValid()).isTrue();
+
+        Map<String, Object> expired = claims();
+        expired.put("exp", NOW - 60);
+        assertRejected(validator, JwtSigner.hs256("hs", SECRET, expired), "token 已过期");
+    }
+
+    @Test
+    void notBeforeHonoursClockSkew() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET)).setClockSkew(Duration.ofSeconds(60));
+
+        Map<String, Object> withinSkew = claims();
+        withinSkew.put("nbf", NOW + 60);
+        assertThat(validate(validator, JwtSigner.hs256("hs", SECRET, withinSkew)).getToken().isValid()).isTrue();
+
+        Map<String, Object> notYetValid = claims();
+        notYetValid.put("nbf", NOW + 61);
+        assertRejected(validator, JwtSigner.hs256("hs", SECRET, notYetValid), "token 尚未生效");
+    }
+
+    @Test
+    void zeroClockSkewIsStrict() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET)).setClockSkew(Duration.ZERO);
+
+        Map<String, Object> expired = claims();
+        expired.put("exp", NOW);
+        assertRejected(validator, JwtSigner.hs256("hs", SECRET, expired), "token 已过期");
+
+        Map<String, Object> notYetValid = claims();
+        notYetValid.put("nbf", NOW + 1);
+        assertRejected(validator, JwtSigner.hs256("hs", SECRET, notYetValid), "token 尚未生效");
+    }
+
+    @Test
+    void requiresExpirationByDefault() {
+        Map<String, Object> claims = claims();
+        claims.remove("exp");
+        String jwt = JwtSigner.hs256("hs", SECRET, claims);
+
+        assertRejected(validator(JwtKey.hmac("hs", SECRET)), jwt, "token 缺少过期时间");
+        JwtTokenValidator lenient = validator(JwtKey.hmac("hs", SECRET)).setRequireExpiration(false);
+        assertThat(validate(lenient, jwt).getToken().isValid()).isTrue();
+    }
+
+    @Test
+    void checksIssuerAndAudience() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET)).setIssuer("auth").setAudience("api");
+        Map<String, Object> claims = claims();
+        claims.put("iss", "auth");
+        claims.put("aud", List.of("web", "api"));
+        assertThat(validate(validator, JwtSigner.hs256("hs", SECRET, claims)).getToken().isValid()).isTrue();
+
+        claims.put("iss", "other");
+        assertRejected(validator, JwtSigner.hs256("hs", SECRET, claims), "token 签发方不匹配");
+        claims.put("iss", "auth");
+        claims.put("aud", "web");
+        assertRejected(validator, JwtSigner.hs256("hs", SECRET, claims), "token 受众不匹配");
+    }
+
+    @Test
+    void verificationCacheReplaysVerifiedTokens() {
+        JwtTokenValidator validator = validator(JwtKey.hmac("hs", SECRET))
+                .enableVerificationCache(16, Duration.ofMinutes(5));
+        String jwt = JwtSigner.hs256("hs", SECRET, claims());
+
+        TokenContext first = validate(validator, jwt);
+        TokenContext second = validate(validator, jwt);
+        assertThat(second.getUserInfo()).isSameAs(first.getUserInfo());
+        assertThat(validator.getVerificationCache().getHitCount()).isEqualTo(1);
+
+        // 签名无效的 token 不会命中缓存
+        assertRejected(validator, jwt.substring(0, jwt.length() - 2) + "AA", "token 签名无效");
+    }
+
+    private static JwtTokenValidator validator(JwtKey... keys) {
+        return new JwtTokenValidator(new StaticJwtKeySource(keys)).setClock(CLOCK);
+    }
+
+    static TokenContext validate(JwtTokenValidator validator, String jwt) {
+        TokenContext ctx = new TokenContext();
+        ctx.setToken(new SimpleToken(jwt, false, "header", "Authorization"));
+        TokenValidatorChain.create(List.of(validator)).validate(ctx);
+        return ctx;
+    }
+
+    private static void assertRejected(JwtTokenValidator validator, String jwt, String message) {
+        assertThatThrownBy(() -> validate(validator, jwt))
+                .isInstanceOf(TokenException.class)
+                .hasMessage(message);
+    }
+
+    private static Map<String, Object> claims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "42");
+        claims.put("username", "alice");
+        claims.put("roles", List.of("admin", "user"));
+        claims.put("permissions", "order:read order:write");
+        claims.put("exp", NOW + 3600);
+        return claims;
+    }
+
+    private static int signatureLength(String jwt) {
+        return Base64.getUrlDecoder().decode(jwt.substring(jwt.lastIndexOf('.') + 1)).length;
+    }
+}
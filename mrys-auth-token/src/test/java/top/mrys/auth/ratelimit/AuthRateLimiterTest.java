@@ -0,0 +1,131 @@
+package top.mrys.auth.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link AuthRateLimiter} 测试
+ *
+ * @author mrys
+ */
+class AuthRateLimiterTest {
+
+    @Test
+    void allowsBurstThenLimits() {
+        // 每小时补充 1 个许可，测试期间可以认为不会补充
+        AuthRateLimiter limiter = new AuthRateLimiter(1, Duration.ofHours(1), 3, 1000);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.isLimited("k")).isFalse();
+            assertThat(limiter.tryAcquire("k")).isZero();
+        }
+        long wait = limiter.tryAcquire("k");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofHours(1).toNanos());
+        assertThat(limiter.isLimited("k")).isTrue();
+        assertThat(limiter.getWaitNanos("k")).isPositive().isLessThanOrEqualTo(wait);
+
+        // 其他键不受影响
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumePermits() {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, Duration.ofHours(1), 1, 1000);
+        assertThat(limiter.tryAcquire("k")).isZero();
+        long first = limiter.tryAcquire("k");
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("k");
+        }
+        // 被拒绝的请求不推进理论到达时间，等待时间不会越来越长
+        assertThat(limiter.getWaitNanos("k")).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 每 20 毫秒补充 1 个许可
+        AuthRateLimiter limiter = new AuthRateLimiter(50, Duration.ofSeconds(1), 1, 1000);
+        assertThat(limiter.tryAcquire("k")).isZero();
+        long wait = limiter.tryAcquire("k");
+        assertThat(wait).isPositive();
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(wait) + 10);
+        assertThat(limiter.tryAcquire("k")).isZero();
+    }
+
+    @Test
+    void resetClearsState() {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, Duration.ofHours(1), 1, 1000);
+        limiter.tryAcquire("k");
+        assertThat(limiter.isLimited("k")).isTrue();
+
+        limiter.reset("k");
+        assertThat(limiter.size()).isZero();
+        assertThat(limiter.isLimited("k")).isFalse();
+        assertThat(limiter.tryAcquire("k")).isZero();
+    }
+
+    @Test
+    void trackedKeysStayBounded() {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, Duration.ofHours(1), 5, 64);
+        int bound = limiter.size();
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("key-" + i);
+            bound = Math.max(bound, limiter.size());
+        }
+        // 每个分片至少保留 1 个键，总数不超过分片数与每分片上限的乘积
+        int shardCount = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4));
+        assertThat(bound).isLessThanOrEqualTo(shardCount * Math.max(1, 64 / shardCount));
+    }
+
+    @Test
+    void concurrentAcquireGrantsExactlyBurst() throws Exception {
+        int burst = 100;
+        AuthRateLimiter limiter = new AuthRateLimiter(1, Duration.ofHours(1), burst, 1000);
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("shared") == 0L) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(granted).hasValue(burst);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> new AuthRateLimiter(0, Duration.ofSeconds(1), 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AuthRateLimiter(1, Duration.ZERO, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AuthRateLimiter(1, Duration.ofSeconds(1), 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AuthRateLimiter(1, Duration.ofSeconds(1), 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
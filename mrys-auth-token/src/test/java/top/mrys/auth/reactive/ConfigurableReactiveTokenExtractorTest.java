@@ -0,0 +1,88 @@
+package top.mrys.auth.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.token.ConfigurableTokenExtractor;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ConfigurableReactiveTokenExtractor} 测试，结果应与 {@link ConfigurableTokenExtractor} 一致
+ *
+ * @author mrys
+ */
+class ConfigurableReactiveTokenExtractorTest {
+
+    @Test
+    void usesConfiguredHeaderNamesInOrder() {
+        AuthProperties.TokenConfig config = new AuthProperties.TokenConfig();
+        config.setHeaderNames(new String[]{"X-Api-Token", "Authorization"});
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api")
+                .header("Authorization", "a")
+                .header("X-Api-Token", "b")
+                .build();
+
+        assertToken(new ConfigurableReactiveTokenExtractor(config).extract(request), "b", "header", "X-Api-Token");
+        assertThat(new ConfigurableReactiveTokenExtractor(config).extract(MockServerHttpRequest.get("/api")
+                .header("X-Token", "c").build())).isNull();
+    }
+
+    @Test
+    void usesConfiguredParameterAndCookieNames() {
+        AuthProperties.TokenConfig config = new AuthProperties.TokenConfig();
+        config.setParameterName("access_token");
+        config.setCookieName("SESSION");
+        ConfigurableReactiveTokenExtractor extractor = new ConfigurableReactiveTokenExtractor(config);
+
+        assertToken(extractor.extract(MockServerHttpRequest.get("/api?access_token=q&token=x").build()),
+                "q", "query", "access_token");
+        assertToken(extractor.extract(MockServerHttpRequest.get("/api")
+                .cookie(new HttpCookie("token", "x"), new HttpCookie("SESSION", "c")).build()),
+                "c", "cookie", "SESSION");
+    }
+
+    @Test
+    void skipsDisabledSources() {
+        AuthProperties.TokenConfig config = new AuthProperties.TokenConfig();
+        config.setEnableHeaderExtraction(false);
+        config.setEnableParameterExtraction(false);
+        ConfigurableReactiveTokenExtractor extractor = new ConfigurableReactiveTokenExtractor(config);
+
+        assertToken(extractor.extract(MockServerHttpRequest.get("/api?token=q")
+                .header("Authorization", "h")
+                .cookie(new HttpCookie("token", "c")).build()), "c", "cookie", "token");
+    }
+
+    @Test
+    void normalizesValuesLikeServletExtractor() {
+        AuthProperties.TokenConfig config = new AuthProperties.TokenConfig();
+        config.setStripBearerPrefix(true);
+        ConfigurableReactiveTokenExtractor reactive = new ConfigurableReactiveTokenExtractor(config);
+        ConfigurableTokenExtractor servlet = new ConfigurableTokenExtractor(config);
+
+        for (String value : new String[]{"Bearer abc", "bearer   abc", "abc", "Bearer ", "   "}) {
+            MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api");
+            servletRequest.addHeader("Authorization", value);
+            Token expected = servlet.extractToken(servletRequest);
+            Token actual = reactive.extract(MockServerHttpRequest.get("/api").header("Authorization", value).build());
+            if (expected == null) {
+                assertThat(actual).as(value).isNull();
+            } else {
+                assertThat(((SimpleToken) actual).getToken()).as(value).isEqualTo(((SimpleToken) expected).getToken());
+            }
+        }
+    }
+
+    private static void assertToken(Token token, String value, String from, String key) {
+        assertThat(token).isInstanceOf(SimpleToken.class);
+        SimpleToken simpleToken = (SimpleToken) token;
+        assertThat(simpleToken.getToken()).isEqualTo(value);
+        assertThat(simpleToken.getFrom()).isEqualTo(from);
+        assertThat(simpleToken.getKey()).isEqualTo(key);
+    }
+}
@@ -0,0 +1,86 @@
+package top.mrys.auth.reactive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import top.mrys.auth.annotation.AuthMetadataRegistry;
+import top.mrys.auth.config.SecurityManager;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.properties.AuthProperties;
+import top.mrys.auth.spel.AuthSpelEvaluator;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ReactiveAuthWebFilter} 路径模式测试
+ *
+ * @author mrys
+ */
+class ReactiveAuthWebFilterTest {
+
+    private GenericApplicationContext applicationContext;
+
+    @BeforeEach
+    void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void acceptsAntPatternsRejectedByPathPatternParser() {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setIncludePatterns(new String[]{"/**"});
+        authProperties.setExcludePatterns(new String[]{"/**/health", "/public/**"});
+        ReactiveAuthWebFilter filter = filter(authProperties);
+
+        assertThat(passes(filter, "/svc/health")).isTrue();
+        assertThat(passes(filter, "/a/b/health")).isTrue();
+        assertThat(passes(filter, "/public/index.html")).isTrue();
+        assertThat(passes(filter, "/svc/orders")).isFalse();
+    }
+
+    @Test
+    void includePatternsUseAntFallback() {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setIncludePatterns(new String[]{"/**/admin/**"});
+        authProperties.setExcludePatterns(new String[0]);
+        ReactiveAuthWebFilter filter = filter(authProperties);
+
+        assertThat(passes(filter, "/svc/admin/users")).isFalse();
+        assertThat(passes(filter, "/svc/users")).isTrue();
+    }
+
+    private ReactiveAuthWebFilter filter(AuthProperties authProperties) {
+        SecurityManager securityManager = new SecurityManager();
+        securityManager.add("all").setIncludePatterns("/**")
+                .addReactiveTokenValidators(ctx -> Mono.error(new TokenException(ctx.getToken(), "token 无效")));
+        return new ReactiveAuthWebFilter(securityManager, new SimpleReactiveTokenExtractor(), null,
+                new AuthSpelEvaluator(applicationContext), authProperties, new AuthMetadataRegistry());
+    }
+
+    /**
+     * 请求带有无效的 token，需要认证的路径会被拒绝
+     */
+    private static boolean passes(ReactiveAuthWebFilter filter, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .header("Authorization", "invalid"));
+        AtomicBoolean passed = new AtomicBoolean();
+        filter.filter(exchange, ex -> Mono.fromRunnable(() -> passed.set(true))).block();
+        if (!passed.get()) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+        return passed.get();
+    }
+}
@@ -0,0 +1,103 @@
+package top.mrys.auth.revocation;
+
+import org.junit.jupiter.api.Test;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link RevocationCheckingValidator} 测试
+ *
+ * @author mrys
+ */
+class RevocationCheckingValidatorTest {
+
+    @Test
+    void rejectsRevokedTokens() {
+        InMemoryRevocationSource source = new InMemoryRevocationSource();
+        RevocationCheckingValidator validator = new RevocationCheckingValidator(source, 100, 0.01, Duration.ofHours(1));
+        SimpleToken token = new SimpleToken("token", true, "header", "Authorization");
+        TokenValidatorChain chain = TokenValidatorChain.create(List.of(validator));
+
+        TokenContext ctx = new TokenContext();
+        ctx.setToken(token);
+        chain.validate(ctx);
+
+        source.revoke(RevocationCheckingValidator.defaultTokenId(token));
+        // 同步之前过滤器中还没有该标识
+        assertThat(validator.isRevoked(RevocationCheckingValidator.defaultTokenId(token))).isFalse();
+        validator.refresh();
+        assertThatThrownBy(() -> chain.validate(ctx))
+                .isInstanceOf(TokenException.class)
+                .hasMessage("token 已被吊销");
+    }
+
+    @Test
+    void rebuildsWhenIncrementalChangesExceedCapacity() {
+        InMemoryRevocationSource source = new InMemoryRevocationSource();
+        RevocationCheckingValidator validator = new RevocationCheckingValidator(source, 100, 0.01, Duration.ofHours(1));
+
+        // 增量写入远超过初始容量
+        for (int batch = 0; batch < 100; batch++) {
+            for (int i = 0; i < 50; i++) {
+                source.revoke("revoked-" + batch + "-" + i);
+            }
+            validator.refresh();
+        }
+        for (int batch = 0; batch < 100; batch++) {
+            assertThat(validator.isRevoked("revoked-" + batch + "-49")).isTrue();
+        }
+
+        long exactChecks = validator.getExactCheckCount();
+        int probes = 10_000;
+        for (int i = 0; i < probes; i++) {
+            assertThat(validator.isRevoked("valid-" + i)).isFalse();
+        }
+        // 扩容后误判率仍接近设定的 1%，没有扩容时几乎所有请求都要精确检查
+        assertThat(validator.getExactCheckCount() - exactChecks).isLessThan(probes / 20);
+    }
+
+    @Test
+    void keepsFilterWhenSourceFails() {
+        InMemoryRevocationSource delegate = new InMemoryRevocationSource();
+        delegate.revoke("revoked");
+        FailingSource source = new FailingSource(delegate);
+        RevocationCheckingValidator validator = new RevocationCheckingValidator(source, 100, 0.01, Duration.ofHours(1));
+
+        source.failing = true;
+        validator.refresh();
+        assertThat(validator.isRevoked("revoked")).isTrue();
+        long exactChecks = validator.getExactCheckCount();
+        assertThat(validator.isRevoked("valid")).isFalse();
+        assertThat(validator.getExactCheckCount()).isEqualTo(exactChecks);
+    }
+
+    private static final class FailingSource implements RevocationSource {
+        private final RevocationSource delegate;
+        private volatile boolean failing;
+
+        private FailingSource(RevocationSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isRevoked(String tokenId) {
+            return delegate.isRevoked(tokenId);
+        }
+
+        @Override
+        public RevocationChanges getChanges(long sinceVersion) {
+            if (failing) {
+                throw new IllegalStateException("吊销列表不可用");
+            }
+            return delegate.getChanges(sinceVersion);
+        }
+    }
+}
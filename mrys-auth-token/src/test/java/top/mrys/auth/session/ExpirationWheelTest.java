@@ -0,0 +1,76 @@
+package top.mrys.auth.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ExpirationWheel} 测试
+ *
+ * @author mrys
+ */
+class ExpirationWheelTest {
+
+    /**
+     * 条目即过期时间
+     */
+    private final ExpirationWheel<Long> wheel = new ExpirationWheel<>(8, 10, 0, Long::longValue);
+
+    @Test
+    void expiresItemsInDueSlots() {
+        wheel.schedule(15L);
+        wheel.schedule(25L);
+        wheel.schedule(40L);
+
+        assertThat(advance(14)).isEmpty();
+        // 推进过的槽中未到期的条目顺延到下一个槽，最多晚一个精度
+        assertThat(advance(15)).isEmpty();
+        assertThat(advance(20)).containsExactly(15L);
+        assertThat(advance(30)).containsExactly(25L);
+        assertThat(advance(39)).isEmpty();
+        assertThat(advance(40)).containsExactly(40L);
+        assertThat(advance(1000)).isEmpty();
+    }
+
+    @Test
+    void keepsItemsBeyondOneRevolution() {
+        // 8 个槽，每槽 10 毫秒，一圈为 80 毫秒
+        wheel.schedule(5L);
+        wheel.schedule(205L);
+
+        assertThat(advance(10)).containsExactly(5L);
+        assertThat(advance(90)).isEmpty();
+        assertThat(advance(200)).isEmpty();
+        assertThat(advance(210)).containsExactly(205L);
+    }
+
+    @Test
+    void catchesUpAfterLongPause() {
+        List<Long> scheduled = new ArrayList<>();
+        for (long deadline = 1; deadline <= 500; deadline += 7) {
+            wheel.schedule(deadline);
+            scheduled.add(deadline);
+        }
+
+        assertThat(advance(10_000)).containsExactlyInAnyOrderElementsOf(scheduled);
+    }
+
+    @Test
+    void schedulesPastDeadlineIntoNextSlot() {
+        advance(100);
+        wheel.schedule(50L);
+
+        // 已经推进过的槽不会再处理，条目放到下一个槽
+        assertThat(advance(109)).isEmpty();
+        assertThat(advance(110)).containsExactly(50L);
+    }
+
+    private List<Long> advance(long now) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(now, expired::add);
+        return expired;
+    }
+}
@@ -0,0 +1,96 @@
+package top.mrys.auth.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static top.mrys.auth.session.SessionTokenValidatorTest.user;
+
+/**
+ * {@link InMemorySessionStore} 测试
+ *
+ * @author mrys
+ */
+class InMemorySessionStoreTest {
+
+    private static final Duration TICK = Duration.ofMinutes(1);
+
+    private final MutableClock clock = new MutableClock(1_700_000_000_000L);
+    // 后台清理间隔足够长，由测试手动清理
+    private final InMemorySessionStore store = new InMemorySessionStore(2, TICK, clock);
+
+    @AfterEach
+    void closeStore() {
+        store.close();
+    }
+
+    @Test
+    void evictsOldestSessionBeyondLimit() {
+        store.create("s1", user("42"), Duration.ofHours(1));
+        clock.advance(Duration.ofSeconds(1));
+        store.create("s2", user("42"), Duration.ofHours(1));
+        clock.advance(Duration.ofSeconds(1));
+        store.create("s3", user("42"), Duration.ofHours(1));
+
+        assertThat(store.get("s1")).isNull();
+        assertThat(store.getSessions("42")).extracting(Session::getId).containsExactly("s2", "s3");
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void replacingSessionDoesNotEvictOthers() {
+        store.create("s1", user("42"), Duration.ofHours(1));
+        store.create("s2", user("42"), Duration.ofHours(1));
+        // 同一标识重新登录，替换的会话不计入上限
+        Session renewed = store.create("s2", user("42"), Duration.ofHours(2));
+
+        assertThat(store.get("s1")).isNotNull();
+        assertThat(store.get("s2")).isSameAs(renewed);
+        assertThat(store.getSessions("42")).extracting(Session::getId).containsExactly("s1", "s2");
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void replacingSessionOfAnotherUserDetachesIt() {
+        store.create("s1", user("42"), Duration.ofHours(1));
+        store.create("s1", user("43"), Duration.ofHours(1));
+
+        assertThat(store.get("s1").getUserId()).isEqualTo("43");
+        assertThat(store.getSessions("42")).isEmpty();
+        assertThat(store.getUserCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removeAllInvalidatesExistingSessionsOnly() {
+        store.create("s1", user("42"), Duration.ofHours(1));
+        store.create("s2", user("42"), Duration.ofHours(1));
+        assertThat(store.removeAll("42")).isEqualTo(2);
+        assertThat(store.get("s1")).isNull();
+        assertThat(store.get("s2")).isNull();
+
+        store.create("s3", user("42"), Duration.ofHours(1));
+        assertThat(store.get("s3")).isNotNull();
+        assertThat(store.getSessions("42")).extracting(Session::getId).containsExactly("s3");
+    }
+
+    @Test
+    void expiredSessionsArePurged() {
+        store.create("short", user("42"), Duration.ofMinutes(5));
+        store.create("long", user("43"), Duration.ofHours(1));
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(store.get("short")).isNull();
+        clock.advance(Duration.ofMinutes(1));
+        store.purgeExpired();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getUserCount()).isEqualTo(1);
+        assertThat(store.get("long")).isNotNull();
+
+        clock.advance(Duration.ofHours(1));
+        store.purgeExpired();
+        assertThat(store.size()).isZero();
+        assertThat(store.getUserCount()).isZero();
+    }
+}
@@ -0,0 +1,70 @@
+package top.mrys.auth.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidatorChain;
+import top.mrys.auth.token.UserInfo;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link SessionTokenValidator} 测试
+ *
+ * @author mrys
+ */
+class SessionTokenValidatorTest {
+
+    private final InMemorySessionStore store = new InMemorySessionStore();
+    private final SessionTokenValidator validator = new SessionTokenValidator(store);
+
+    @AfterEach
+    void closeStore() {
+        store.close();
+    }
+
+    @Test
+    void findsSessionWithOrWithoutBearerPrefix() {
+        store.create(SessionTokenValidator.defaultSessionId("opaque-token"), user("42"), Duration.ofHours(1));
+
+        // strip-bearer-prefix=false 时提取到的 token 带有前缀
+        for (String value : List.of("opaque-token", "Bearer opaque-token", "bearer  opaque-token")) {
+            TokenContext ctx = validate(value);
+            assertThat(ctx.getToken().isValid()).isTrue();
+            assertThat(ctx.getUserInfo().getUserId()).isEqualTo("42");
+        }
+    }
+
+    @Test
+    void rejectsUnknownOrRemovedSession() {
+        String sessionId = SessionTokenValidator.defaultSessionId("opaque-token");
+        store.create(sessionId, user("42"), Duration.ofHours(1));
+        store.remove(sessionId);
+
+        assertThatThrownBy(() -> validate("Bearer opaque-token"))
+                .isInstanceOf(TokenException.class)
+                .hasMessage("会话不存在或已过期");
+        assertThatThrownBy(() -> validate("other"))
+                .isInstanceOf(TokenException.class)
+                .hasMessage("会话不存在或已过期");
+    }
+
+    private TokenContext validate(String token) {
+        TokenContext ctx = new TokenContext();
+        ctx.setToken(new SimpleToken(token, false, "header", "Authorization"));
+        TokenValidatorChain.create(List.of(validator)).validate(ctx);
+        return ctx;
+    }
+
+    static UserInfo user(String userId) {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId(userId);
+        return userInfo;
+    }
+}
@@ -0,0 +1,143 @@
+package top.mrys.auth.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import top.mrys.auth.exceptions.TokenException;
+import top.mrys.auth.revocation.RevocationCheckingValidator;
+import top.mrys.auth.token.SimpleToken;
+import top.mrys.auth.token.Token;
+import top.mrys.auth.token.TokenContext;
+import top.mrys.auth.token.TokenValidatorChain;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link SlidingExpirationTokenValidator} 测试
+ *
+ * @author mrys
+ */
+class SlidingExpirationTokenValidatorTest {
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final MutableClock clock = new MutableClock(1_700_000_000_000L);
+    private final InMemoryTokenAccessStore store = new InMemoryTokenAccessStore();
+    // 刷新间隔足够长，由测试手动刷新
+    private final LastAccessTracker tracker = new LastAccessTracker(store, Duration.ofHours(1), 500, 100_000, 100_000);
+    private final SlidingExpirationTokenValidator validator =
+            new SlidingExpirationTokenValidator(tracker, IDLE_TIMEOUT).setClock(clock);
+
+    @AfterEach
+    void closeTracker() {
+        tracker.close();
+    }
+
+    @Test
+    void startedTokenSlidesWithUse() {
+        Token token = token("t1");
+        validator.start(token);
+        assertThat(store.size()).isEqualTo(1);
+
+        for (int i = 0; i < 5; i++) {
+            clock.advance(IDLE_TIMEOUT);
+            validate(token);
+        }
+        clock.advance(IDLE_TIMEOUT.plusMillis(1));
+        assertRejected(token, "token 长时间未使用，已过期");
+    }
+
+    @Test
+    void tokenWithoutRecordIsRejected() {
+        assertRejected(token("unknown"), "token 没有访问记录，已过期");
+    }
+
+    @Test
+    void purgedTokenDoesNotRevive() {
+        Token token = token("t1");
+        validator.start(token);
+        clock.advance(IDLE_TIMEOUT.plusMinutes(1));
+        assertThat(store.purgeOlderThan(clock.millis() - IDLE_TIMEOUT.toMillis())).isEqualTo(1);
+
+        // 新的跟踪器模拟重启后的实例，本地没有任何记录
+        try (LastAccessTracker restarted = new LastAccessTracker(store, Duration.ofHours(1), 500, 100, 100)) {
+            SlidingExpirationTokenValidator fresh =
+                    new SlidingExpirationTokenValidator(restarted, IDLE_TIMEOUT).setClock(clock);
+            assertThatThrownBy(() -> validate(fresh, token))
+                    .isInstanceOf(TokenException.class)
+                    .hasMessage("token 没有访问记录，已过期");
+        }
+    }
+
+    @Test
+    void forgetWritesTombstone() {
+        Token token = token("t1");
+        validator.start(token);
+        validate(token);
+        String tokenId = tokenId("t1");
+
+        tracker.forget(tokenId);
+        assertRejected(token, "token 已注销");
+        assertThat(store.getLastAccess(tokenId)).isEqualTo(LastAccessTracker.ENDED);
+
+        // 之后写入的访问时间不会覆盖墓碑，清理也不会删除墓碑
+        tracker.record(tokenId, clock.millis());
+        tracker.flush();
+        assertThat(store.getLastAccess(tokenId)).isEqualTo(LastAccessTracker.ENDED);
+        assertThat(store.purgeOlderThan(Long.MAX_VALUE)).isZero();
+
+        // 其他实例也能看到注销
+        try (LastAccessTracker other = new LastAccessTracker(store, Duration.ofHours(1), 500, 100, 100)) {
+            SlidingExpirationTokenValidator otherValidator =
+                    new SlidingExpirationTokenValidator(other, IDLE_TIMEOUT).setClock(clock);
+            assertThatThrownBy(() -> validate(otherValidator, token))
+                    .isInstanceOf(TokenException.class)
+                    .hasMessage("token 已注销");
+        }
+    }
+
+    @Test
+    void accessIsBufferedUntilFlush() {
+        Token token = token("t1");
+        validator.start(token);
+        long writes = tracker.getWriteCount();
+        for (int i = 0; i < 10; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            validate(token);
+        }
+        assertThat(tracker.getWriteCount()).isEqualTo(writes);
+        assertThat(tracker.getPendingCount()).isEqualTo(1);
+
+        tracker.flush();
+        assertThat(tracker.getWriteCount()).isEqualTo(writes + 1);
+        assertThat(tracker.getPendingCount()).isZero();
+        assertThat(store.getLastAccess(tokenId("t1"))).isEqualTo(clock.millis());
+    }
+
+    private void validate(Token token) {
+        validate(validator, token);
+    }
+
+    private static void validate(SlidingExpirationTokenValidator validator, Token token) {
+        TokenContext ctx = new TokenContext();
+        ctx.setToken(token);
+        TokenValidatorChain.create(List.of(validator)).validate(ctx);
+    }
+
+    private void assertRejected(Token token, String message) {
+        assertThatThrownBy(() -> validate(token))
+                .isInstanceOf(TokenException.class)
+                .hasMessage(message);
+    }
+
+    private static Token token(String value) {
+        return new SimpleToken(value, false, "header", "Authorization");
+    }
+
+    private static String tokenId(String value) {
+        return RevocationCheckingValidator.defaultTokenId(token(value));
+    }
+}
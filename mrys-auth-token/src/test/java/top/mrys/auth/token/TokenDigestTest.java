@@ -0,0 +1,48 @@
+package top.mrys.auth.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link TokenDigest} 测试
+ *
+ * @author mrys
+ */
+class TokenDigestTest {
+
+    /**
+     * SHA-256("abc")
+     */
+    private static final String ABC = "ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0";
+
+    @Test
+    void digestIsSha256() {
+        assertThat(TokenDigest.of("abc")).isEqualTo(ABC);
+        assertThat(TokenDigest.of(new SimpleToken("abc", false, "header", "Authorization"))).isEqualTo(ABC);
+        assertThat(TokenDigest.of(new UsernamePwdToken())).isNull();
+    }
+
+    @Test
+    void keyHoldsTheSameDigest() {
+        TokenDigest.Key key = TokenDigest.key("abc");
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(ABC));
+
+        assertThat(key).isEqualTo(new TokenDigest.Key(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong()));
+        assertThat(key).isEqualTo(TokenDigest.key(new SimpleToken("abc", false, "query", "token")));
+        assertThat(key).isNotEqualTo(TokenDigest.key("abd"));
+        assertThat(TokenDigest.key(new UsernamePwdToken())).isNull();
+    }
+
+    @Test
+    void concurrentDigestsAreIndependent() {
+        assertThat(IntStream.range(0, 10_000).parallel()
+                .allMatch(i -> TokenDigest.key("token-" + i).equals(TokenDigest.key("token-" + i))
+                        && !TokenDigest.key("token-" + i).equals(TokenDigest.key("token-" + (i + 1)))))
+                .isTrue();
+    }
+}